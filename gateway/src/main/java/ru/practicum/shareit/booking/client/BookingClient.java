@@ -2,14 +2,21 @@ package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Map;
 
 @Component
@@ -31,7 +38,18 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
-    public ResponseEntity<Object> getBookingsByItemOwnerId(Long itemOwnerId, State state, Integer from, Integer size) {
+    public ResponseEntity<Object> changeStatuses(Long userId, IncomingBookingStatusDto incomingBookingStatusDto) {
+        return patch("/status", userId, incomingBookingStatusDto);
+    }
+
+    public ResponseEntity<Object> getBookingsByItemOwnerId(Long itemOwnerId, State state, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> params = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor);
+            return get("/owner?state={state}&size={size}&cursor={cursor}", itemOwnerId, params);
+        }
         Map<String, Object> params = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -39,7 +57,34 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", itemOwnerId, params);
     }
 
-    public ResponseEntity<Object> getBookingsByUserId(Long userId, State state, Integer from, Integer size) {
+    /**
+     * Copies the server's NDJSON stream straight to the gateway response without
+     * buffering it or mapping it to objects.
+     */
+    public void exportBookingsByItemOwnerId(Long itemOwnerId, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute("/owner/export", HttpMethod.GET,
+                    request -> request.getHeaders().set("X-Sharer-User-Id", String.valueOf(itemOwnerId)),
+                    serverResponse -> {
+                        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                        StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                        return null;
+                    });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    public ResponseEntity<Object> getBookingsByUserId(Long userId, State state, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> params = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor);
+            return get("?state={state}&size={size}&cursor={cursor}", userId, params);
+        }
         Map<String, Object> params = Map.of(
                 "state", state.name(),
                 "from", from,
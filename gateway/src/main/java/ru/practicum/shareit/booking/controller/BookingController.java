@@ -9,9 +9,12 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.IOException;
 
 
 @Slf4j
@@ -38,6 +41,14 @@ public class BookingController {
         return bookingClient.changeStatus(userId, bookingId, approved);
     }
 
+    @PatchMapping("/status")
+    public ResponseEntity<Object> patchStatuses(@Valid @RequestBody IncomingBookingStatusDto incomingBookingStatusDto,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен запрос PATCH /bookings/status для {} бронирований с заголовком X-Sharer-User-Id = {}",
+                incomingBookingStatusDto.getBookingIds().size(), userId);
+        return bookingClient.changeStatuses(userId, incomingBookingStatusDto);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -49,8 +60,10 @@ public class BookingController {
     public ResponseEntity<Object> getBookingsForUser(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                                      @RequestParam(defaultValue = "10") @Min(1) Integer size,
-                                                     @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получен запрос GET /bookings?state={}&from={}&size={} с заголовком X-Sharer-User-Id = {}", state, from, size, userId);
+                                                     @RequestParam(defaultValue = "ALL") String state,
+                                                     @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /bookings?state={}&from={}&size={}&cursor={} с заголовком X-Sharer-User-Id = {}",
+                state, from, size, cursor, userId);
         State stateValue;
         try {
             stateValue = State.valueOf(state);
@@ -58,15 +71,17 @@ public class BookingController {
             log.info("Неподдерживаемый State: {}", state);
             throw new IllegalStateException("Unknown state: " + state);
         }
-        return bookingClient.getBookingsByUserId(userId, stateValue, from, size);
+        return bookingClient.getBookingsByUserId(userId, stateValue, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsForItemOwner(@RequestHeader("X-Sharer-User-Id") Long itemOwnerId,
                                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                                           @RequestParam(defaultValue = "10") @Min(1) Integer size,
-                                                          @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получен запрос GET /bookings/owner?state={}&from={}&size={} с заголовком X-Sharer-User-Id = {}", state, from, size, itemOwnerId);
+                                                          @RequestParam(defaultValue = "ALL") String state,
+                                                          @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /bookings/owner?state={}&from={}&size={}&cursor={} с заголовком X-Sharer-User-Id = {}",
+                state, from, size, cursor, itemOwnerId);
         State stateValue;
         try {
             stateValue = State.valueOf(state);
@@ -74,6 +89,13 @@ public class BookingController {
             log.info("Неподдерживаемый State: {}", state);
             throw new IllegalStateException("Unknown state: " + state);
         }
-        return bookingClient.getBookingsByItemOwnerId(itemOwnerId, stateValue, from, size);
+        return bookingClient.getBookingsByItemOwnerId(itemOwnerId, stateValue, from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportBookingsForItemOwner(@RequestHeader("X-Sharer-User-Id") Long itemOwnerId,
+                                           HttpServletResponse response) throws IOException {
+        log.info("Получен запрос GET /bookings/owner/export с заголовком X-Sharer-User-Id = {}", itemOwnerId);
+        bookingClient.exportBookingsByItemOwnerId(itemOwnerId, response);
     }
 }
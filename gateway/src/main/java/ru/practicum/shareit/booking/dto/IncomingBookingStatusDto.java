@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Value
+public class IncomingBookingStatusDto {
+    @NotEmpty
+    @Size(max = 100)
+    List<@NotNull Long> bookingIds;
+
+    @NotNull
+    Boolean approved;
+}
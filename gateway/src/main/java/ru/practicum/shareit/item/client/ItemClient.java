@@ -2,14 +2,25 @@ package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.item.SearchSort;
 import ru.practicum.shareit.item.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -18,15 +29,57 @@ public class ItemClient extends BaseClient {
 
     public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder rest) {
         super(rest.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + ENDPOINT))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .requestFactory(ItemClient::streamingRequestFactory)
                 .build());
     }
 
+    /**
+     * Request bodies are written straight to the connection instead of being buffered first,
+     * so that an imported catalog passes through the gateway without being held in memory.
+     */
+    private static ClientHttpRequestFactory streamingRequestFactory() {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+
     public ResponseEntity<Object> add(ItemDto itemDto, Long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(Long userId, Integer from, Integer size) {
+    /**
+     * Copies the uploaded JSON array or NDJSON stream to the server and its per-row results back.
+     * Rows are validated by the server, so that a bad row is reported instead of failing the whole upload.
+     */
+    public void importItems(Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute("/batch", HttpMethod.POST,
+                    serverRequest -> {
+                        serverRequest.getHeaders().setContentType(MediaType.parseMediaType(request.getContentType()));
+                        serverRequest.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                        serverRequest.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                        StreamUtils.copy(request.getInputStream(), serverRequest.getBody());
+                    },
+                    serverResponse -> {
+                        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                        StreamUtils.copy(serverResponse.getBody(), response.getOutputStream());
+                        return null;
+                    });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    public ResponseEntity<Object> getItemsByUserId(Long userId, Integer from, Integer size, Integer commentsLimit) {
+        if (commentsLimit != null) {
+            Map<String, Object> params = Map.of(
+                    "from", from,
+                    "size", size,
+                    "commentsLimit", commentsLimit);
+            return get("?from={from}&size={size}&commentsLimit={commentsLimit}", userId, params);
+        }
         Map<String, Object> params = Map.of(
                 "from", from,
                 "size", size);
@@ -37,19 +90,47 @@ public class ItemClient extends BaseClient {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
-    public ResponseEntity<Object> getByItemIdAndUserId(Long itemId, Long userId) {
+    public ResponseEntity<Object> getByItemIdAndUserId(Long itemId, Long userId, Integer commentsLimit) {
+        if (commentsLimit != null) {
+            return get("/" + itemId + "?commentsLimit={commentsLimit}", userId, Map.of("commentsLimit", commentsLimit));
+        }
         return get("/" + itemId, userId, null);
     }
 
-    public ResponseEntity<Object> getAllWithText(Long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> getComments(Long userId, Long itemId, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> params = Map.of(
+                    "size", size,
+                    "cursor", cursor);
+            return get("/" + itemId + "/comments?size={size}&cursor={cursor}", userId, params);
+        }
+        return get("/" + itemId + "/comments?size={size}", userId, Map.of("size", size));
+    }
+
+    public ResponseEntity<Object> getAllWithText(Long userId, String text, Integer from, Integer size, SearchSort sort) {
         Map<String, Object> params = Map.of(
                 "from", from,
                 "size", size,
-                "text", text);
-        return get("/search?from={from}&size={size}&text={text}", userId, params);
+                "text", text,
+                "sort", sort.name());
+        return get("/search?from={from}&size={size}&text={text}&sort={sort}", userId, params);
+    }
+
+    public ResponseEntity<Object> suggest(Long userId, String prefix, Integer limit) {
+        Map<String, Object> params = Map.of(
+                "prefix", prefix,
+                "limit", limit);
+        return get("/suggest?prefix={prefix}&limit={limit}", userId, params);
     }
 
     public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
+
+    public ResponseEntity<Object> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> params = Map.of(
+                "from", from,
+                "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, params);
+    }
 }
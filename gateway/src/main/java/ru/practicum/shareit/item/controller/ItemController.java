@@ -2,16 +2,25 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.SearchSort;
 import ru.practicum.shareit.item.client.ItemClient;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Slf4j
 @Validated
@@ -28,6 +37,14 @@ public class ItemController {
         return itemClient.add(item, ownerId);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void postItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        log.info("Получен запрос POST /items/batch с заголовком X-Sharer-User-Id = {}", ownerId);
+        itemClient.importItems(ownerId, request, response);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> postComment(@RequestHeader("X-Sharer-User-Id") Long authorId,
                                               @PathVariable Long itemId,
@@ -46,25 +63,66 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getByItemId(@PathVariable long itemId,
-                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                              @RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam(required = false) @Min(0) Integer commentsLimit) {
         log.info("Получен запрос GET /items/{} с заголовком X-Sharer-User-Id = {}", itemId, userId);
-        return itemClient.getByItemIdAndUserId(itemId, userId);
+        return itemClient.getByItemIdAndUserId(itemId, userId, commentsLimit);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size,
+                                              @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /items/{}/comments?size={}&cursor={} с заголовком X-Sharer-User-Id = {}",
+                itemId, size, cursor, userId);
+        return itemClient.getComments(userId, itemId, size, cursor);
     }
 
     @GetMapping
     public ResponseEntity<Object> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                               @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                              @RequestParam(defaultValue = "10") @Min(1) Integer size) {
+                                              @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                              @RequestParam(required = false) @Min(0) Integer commentsLimit) {
         log.info("Получен запрос GET /items с заголовком X-Sharer-User-Id = {}", userId);
-        return itemClient.getItemsByUserId(userId, from, size);
+        return itemClient.getItemsByUserId(userId, from, size, commentsLimit);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> search(@RequestParam String text,
                                          @RequestHeader("X-Sharer-User-Id") Long userId,
                                          @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                         @RequestParam(defaultValue = "10") @Min(1) Integer size) {
-        log.info("Получен запрос GET /items/search?text={} с заголовком X-Sharer-User-Id = {}", text, userId);
-        return itemClient.getAllWithText(userId, text, from, size);
+                                         @RequestParam(defaultValue = "10") @Min(1) Integer size,
+                                         @RequestParam(defaultValue = "id") String sort) {
+        log.info("Получен запрос GET /items/search?text={}&sort={} с заголовком X-Sharer-User-Id = {}", text, sort, userId);
+        SearchSort sortValue;
+        try {
+            sortValue = SearchSort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.info("Неподдерживаемая сортировка: {}", sort);
+            throw new IllegalStateException("Unknown sort: " + sort);
+        }
+        return itemClient.getAllWithText(userId, text, from, size, sortValue);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix,
+                                          @RequestHeader("X-Sharer-User-Id") Long userId,
+                                          @RequestParam(defaultValue = "10") @Min(1) @Max(50) Integer limit) {
+        log.info("Получен запрос GET /items/suggest?prefix={} с заголовком X-Sharer-User-Id = {}", prefix, userId);
+        return itemClient.suggest(userId, prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable Long itemId,
+                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос GET /items/{}/availability?from={}&to={} с заголовком X-Sharer-User-Id = {}",
+                itemId, from, to, userId);
+        if (!from.isBefore(to)) {
+            throw new IllegalStateException("Начало периода должно быть раньше его конца");
+        }
+        return itemClient.getAvailability(userId, itemId, from, to);
     }
 }
@@ -10,13 +10,18 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 import ru.practicum.shareit.booking.dto.Status;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -90,4 +95,26 @@ class BookingControllerTest {
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void changeStatusesWithoutIds() throws Exception {
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(new IncomingBookingStatusDto(List.of(), true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changeStatusesWithTooManyIds() throws Exception {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(new IncomingBookingStatusDto(bookingIds, true)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,43 @@
+-- Compares the item search LIKE query without and with the trigram indexes of V8 on 1M items.
+-- Runs against a scratch schema: psql -d shareit -f item_search.sql
+-- The in-memory mode is measured by ItemSearchBenchmarkTest (mvn test -Dbenchmark=true).
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+SET search_path = bench, public;
+
+CREATE TABLE items
+(
+    id           BIGINT PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL,
+    description  VARCHAR(512) NOT NULL,
+    is_available BOOLEAN      NOT NULL
+);
+
+INSERT INTO items
+SELECT g,
+       'Вещь ' || md5(g::text),
+       'Описание ' || md5((g * 7)::text) || ' ' || md5((g * 13)::text),
+       g % 10 <> 0
+FROM generate_series(1, 1000000) AS g;
+UPDATE items SET name = 'Дрель ударная ' || id WHERE id % 10000 = 0;
+ANALYZE items;
+
+\timing on
+-- LIKE scan
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items
+WHERE (upper(name) LIKE upper('%дрель%') OR upper(description) LIKE upper('%дрель%')) AND is_available IS TRUE
+ORDER BY id LIMIT 20;
+
+CREATE INDEX idx_items_name_trgm ON items USING gin (upper(name) gin_trgm_ops);
+CREATE INDEX idx_items_description_trgm ON items USING gin (upper(description) gin_trgm_ops);
+ANALYZE items;
+
+-- trigram indexes
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM items
+WHERE (upper(name) LIKE upper('%дрель%') OR upper(description) LIKE upper('%дрель%')) AND is_available IS TRUE
+ORDER BY id LIMIT 20;
+\timing off
+
+DROP SCHEMA bench CASCADE;
@@ -1,6 +1,7 @@
 package ru.practicum.shareit;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -26,6 +27,13 @@ public class ExceptionsHandler {
         return Map.of(HttpStatus.CONFLICT, e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<HttpStatus, String> handleOptimisticLockingFailure(final OptimisticLockingFailureException e) {
+        log.warn(e.getMessage());
+        return Map.of(HttpStatus.CONFLICT, "Данные были изменены другим запросом, повторите попытку");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<HttpStatus, String> handleMethodArgumentNotValidException(final MethodArgumentNotValidException e) {
@@ -1,21 +1,37 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
+import ru.practicum.shareit.booking.service.BookingExport;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.service.State;
+import ru.practicum.shareit.util.CursorPage;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public OutcomingBookingDto post(@RequestHeader("X-Sharer-User-Id") Long bookerId,
@@ -33,6 +49,14 @@ public class BookingController {
         return bookingService.changeStatus(bookingId, approved, userId);
     }
 
+    @PatchMapping("/status")
+    public List<BookingStatusChangeDto> patchStatuses(@RequestBody IncomingBookingStatusDto incomingBookingStatusDto,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получен запрос PATCH /bookings/status для {} бронирований с заголовком X-Sharer-User-Id = {}",
+                incomingBookingStatusDto.getBookingIds().size(), userId);
+        return bookingService.changeStatuses(incomingBookingStatusDto, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public OutcomingBookingDto getBookingById(@PathVariable Long bookingId,
                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -41,26 +65,69 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<OutcomingBookingDto> getBookingsForUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                              @RequestParam(defaultValue = "0") Integer from,
-                                                              @RequestParam(defaultValue = "10") Integer size,
-                                                              @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получен запрос GET /bookings?state={}&from={}&size={} с заголовком X-Sharer-User-Id = {}", state, from, size, userId);
+    public ResponseEntity<Collection<OutcomingBookingDto>> getBookingsForUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                              @RequestParam(defaultValue = "0") Integer from,
+                                                                              @RequestParam(defaultValue = "10") Integer size,
+                                                                              @RequestParam(defaultValue = "ALL") String state,
+                                                                              @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /bookings?state={}&from={}&size={}&cursor={} с заголовком X-Sharer-User-Id = {}",
+                state, from, size, cursor, userId);
         State stateValue;
         try {
             stateValue = State.valueOf(state);
         } catch (IllegalArgumentException e) {
             throw new IllegalStateException("Unknown state: " + state);
         }
-        return bookingService.getAllByUserId(userId, stateValue, from, size);
+        if (cursor != null) {
+            return toResponse(bookingService.getPageByUserId(userId, stateValue, cursor, size));
+        }
+        return ResponseEntity.ok(bookingService.getAllByUserId(userId, stateValue, from, size));
     }
 
     @GetMapping("/owner")
-    public Collection<OutcomingBookingDto> getBookingsForItemOwner(@RequestHeader("X-Sharer-User-Id") Long itemOwnerId,
-                                                                   @RequestParam(defaultValue = "0") Integer from,
-                                                                   @RequestParam(defaultValue = "10") Integer size,
-                                                                   @RequestParam(defaultValue = "ALL") State state) {
-        log.info("Получен запрос GET /bookings/owner?state={} с заголовком X-Sharer-User-Id = {}", state, itemOwnerId);
-        return bookingService.getAllForItemOwnerId(itemOwnerId, state, from, size);
+    public ResponseEntity<Collection<OutcomingBookingDto>> getBookingsForItemOwner(@RequestHeader("X-Sharer-User-Id") Long itemOwnerId,
+                                                                                   @RequestParam(defaultValue = "0") Integer from,
+                                                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                                                   @RequestParam(defaultValue = "ALL") State state,
+                                                                                   @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /bookings/owner?state={}&cursor={} с заголовком X-Sharer-User-Id = {}", state, cursor, itemOwnerId);
+        if (cursor != null) {
+            return toResponse(bookingService.getPageForItemOwnerId(itemOwnerId, state, cursor, size));
+        }
+        return ResponseEntity.ok(bookingService.getAllForItemOwnerId(itemOwnerId, state, from, size));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportForItemOwner(@RequestHeader("X-Sharer-User-Id") Long itemOwnerId) {
+        log.info("Получен запрос GET /bookings/owner/export с заголовком X-Sharer-User-Id = {}", itemOwnerId);
+        BookingExport export = bookingService.exportForItemOwnerId(itemOwnerId);
+        ObjectWriter writer = objectMapper.writerFor(OutcomingBookingDto.class);
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out);
+            try {
+                export.writeTo(booking -> {
+                    try {
+                        buffered.write(writer.writeValueAsBytes(booking));
+                        buffered.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static ResponseEntity<Collection<OutcomingBookingDto>> toResponse(CursorPage<OutcomingBookingDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
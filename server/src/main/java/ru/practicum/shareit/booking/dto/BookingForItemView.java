@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingForItemView {
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    LocalDateTime getStartDate();
+}
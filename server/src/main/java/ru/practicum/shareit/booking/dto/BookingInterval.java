@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+}
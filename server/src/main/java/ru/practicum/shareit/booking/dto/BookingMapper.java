@@ -6,9 +6,6 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDtoForBooking;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
-
 public class BookingMapper {
 
     private BookingMapper() {
@@ -23,15 +20,12 @@ public class BookingMapper {
                 new ItemDtoForBooking(booking.getItem().getId(), booking.getItem().getName()));
     }
 
-    public static Collection<OutcomingBookingDto> toOutcomingDtoAll(Collection<Booking> bookings) {
-        return bookings.stream()
-                .map(BookingMapper::toOutcomingDto)
-                .collect(Collectors.toList());
+    public static BookingDtoForItem toBookingDtoForItem(BookingForItemView view) {
+        return new BookingDtoForItem(view.getId(), view.getBookerId());
     }
 
     public static Booking toBooking(IncomingBookingDto incomingBookingDto, Long bookerId) {
         Booking booking = new Booking();
-        booking.setId(incomingBookingDto.getId());
         booking.setStart(incomingBookingDto.getStart());
         booking.setEnd(incomingBookingDto.getEnd());
         Booking.Status status = incomingBookingDto.getStatus();
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.Booking;
+
+@Value
+public class BookingStatusChangeDto {
+    public enum Outcome {
+        CHANGED, NOT_FOUND, NOT_WAITING
+    }
+
+    Long bookingId;
+    Outcome outcome;
+    Booking.Status status;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+public interface BookingStatusView {
+    Long getId();
+
+    Long getItemId();
+
+    Booking.Status getStatus();
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface CommentEligibilityView {
+    String getAuthorName();
+
+    Boolean getItemExists();
+
+    Boolean getBookedInPast();
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+@Value
+public class LastAndNextBookingDto {
+    public static final LastAndNextBookingDto EMPTY = new LastAndNextBookingDto(null, null);
+
+    BookingDtoForItem lastBooking;
+    BookingDtoForItem nextBooking;
+}
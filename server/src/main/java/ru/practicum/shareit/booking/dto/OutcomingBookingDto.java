@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Value;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDtoForBooking;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.user.dto.UserDtoForBooking;
 import java.time.LocalDateTime;
 
 @Value
+@AllArgsConstructor
 public class OutcomingBookingDto {
     Long id;
     LocalDateTime start;
@@ -15,4 +17,14 @@ public class OutcomingBookingDto {
     Booking.Status status;
     UserDtoForBooking booker;
     ItemDtoForBooking item;
+
+    public OutcomingBookingDto(Long id,
+                               LocalDateTime start,
+                               LocalDateTime end,
+                               Booking.Status status,
+                               Long bookerId,
+                               Long itemId,
+                               String itemName) {
+        this(id, start, end, status, new UserDtoForBooking(bookerId), new ItemDtoForBooking(itemId, itemName));
+    }
 }
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.model.Item;
@@ -16,21 +15,23 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
 @Table(name = "bookings")
 @NoArgsConstructor
-@AllArgsConstructor
 public class Booking {
     public enum Status {
         WAITING, APPROVED, REJECTED, CANCELED
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date", nullable = false, updatable = false)
@@ -49,4 +50,19 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private Status status = Status.WAITING;
+
+    @Version
+    private Long version;
+
+    @Column(insertable = false, updatable = false)
+    private boolean archived;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, Status status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
 }
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+    private static final String UPDATE_WAITING_STATUS_SQL =
+            "UPDATE bookings SET status = ?, version = version + 1 WHERE id = ? AND status = 'WAITING'";
+
+    private static final String ARCHIVE_ENDED_BEFORE_SQL =
+            "UPDATE bookings SET archived = TRUE WHERE archived = FALSE AND id IN " +
+                    "(SELECT id FROM bookings WHERE archived = FALSE AND end_date < ? " +
+                    "AND status IN ('APPROVED', 'REJECTED', 'CANCELED') ORDER BY id LIMIT ?)";
+
+    private static final String SELECT_FOR_ITEM_OWNER_SQL =
+            "SELECT b.id, b.start_date, b.end_date, b.status, b.booker_id, b.item_id, i.name AS item_name " +
+                    "FROM bookings AS b JOIN items AS i ON i.id = b.item_id " +
+                    "WHERE i.owner_id = ? " +
+                    "ORDER BY b.start_date DESC, b.id DESC";
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sends the updates as one JDBC batch and returns the affected row count
+     * for each id in the order of {@code bookingIds}.
+     */
+    public int[] updateWaitingStatuses(List<Long> bookingIds, Booking.Status status) {
+        return jdbcTemplate.batchUpdate(UPDATE_WAITING_STATUS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, status.name());
+                ps.setLong(2, bookingIds.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bookingIds.size();
+            }
+        });
+    }
+
+    /**
+     * Moves at most {@code limit} bookings that ended before {@code endedBefore} to the archive partition.
+     * WAITING bookings stay hot however old they are, the WAITING state queries read only the hot partition.
+     */
+    public int archiveEndedBefore(LocalDateTime endedBefore, int limit) {
+        return jdbcTemplate.update(ARCHIVE_ENDED_BEFORE_SQL, Timestamp.valueOf(endedBefore), limit);
+    }
+
+    /**
+     * Reads all bookings of the owner's items through a forward-only cursor, {@link #EXPORT_FETCH_SIZE} rows
+     * at a time. PostgreSQL honours the fetch size only inside a transaction.
+     */
+    public void streamForItemOwner(long ownerId, Consumer<OutcomingBookingDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_FOR_ITEM_OWNER_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            ps.setLong(1, ownerId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new OutcomingBookingDto(
+                rs.getLong("id"),
+                rs.getTimestamp("start_date").toLocalDateTime(),
+                rs.getTimestamp("end_date").toLocalDateTime(),
+                Booking.Status.valueOf(rs.getString("status")),
+                rs.getLong("booker_id"),
+                rs.getLong("item_id"),
+                rs.getString("item_name"))));
+    }
+}
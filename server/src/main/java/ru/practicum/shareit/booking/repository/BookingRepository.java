@@ -1,35 +1,220 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.CommentEligibilityView;
+import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 //TODO переделать на SQL запросы
 @Repository
 public interface BookingRepository extends CrudRepository<Booking, Long>, Serializable {
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+    String SELECT_OUTCOMING_DTO = "select new ru.practicum.shareit.booking.dto.OutcomingBookingDto(" +
+            "b.id, b.start, b.end, b.status, b.booker.id, b.item.id, b.item.name) from Booking b ";
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, Booking.Status status, Pageable pageable);
+    String AFTER_CURSOR = " and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))" +
+            " order by b.start desc, b.id desc";
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime ldt, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.id = ?1")
+    Optional<OutcomingBookingDto> findOutcomingDtoById(Long bookingId);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime ldt, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = ?1")
+    List<OutcomingBookingDto> findAllByBookerId(Long bookerId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = ?1 and b.status = ?2")
+    List<OutcomingBookingDto> findAllByBookerIdAndStatus(Long bookerId, Booking.Status status, Pageable pageable);
 
-    List<Booking> findAllByItemIdIn(Collection<Long> itemIds, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = ?1 and b.end < ?2")
+    List<OutcomingBookingDto> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime ldt, Pageable pageable);
 
-    List<Booking> findAllByItemIdInAndStatus(Collection<Long> ids, Booking.Status status, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = ?1 and b.status = ?2 and b.archived = false")
+    List<OutcomingBookingDto> findHotByBookerIdAndStatus(Long bookerId, Booking.Status status, Pageable pageable);
 
-    List<Booking> findAllByItemIdInAndEndBefore(Collection<Long> ids, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = ?1 and b.start > ?2 and b.archived = false")
+    List<OutcomingBookingDto> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime ldt, Pageable pageable);
 
-    List<Booking> findAllByItemIdInAndStartAfter(Collection<Long> ids, LocalDateTime now, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 and b.archived = false")
+    List<OutcomingBookingDto> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
 
-    List<Booking> findAllByItemIdInAndStartBeforeAndEndAfter(Collection<Long> ids, LocalDateTime now, LocalDateTime now1, Pageable pageable);
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = ?1")
+    List<OutcomingBookingDto> findAllByItemOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = ?1 and b.status = ?2")
+    List<OutcomingBookingDto> findAllByItemOwnerIdAndStatus(Long ownerId, Booking.Status status, Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = ?1 and b.end < ?2")
+    List<OutcomingBookingDto> findAllByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = ?1 and b.status = ?2 and b.archived = false")
+    List<OutcomingBookingDto> findHotByItemOwnerIdAndStatus(Long ownerId, Booking.Status status, Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = ?1 and b.start > ?2 and b.archived = false")
+    List<OutcomingBookingDto> findAllByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime now, Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?3 and b.archived = false")
+    List<OutcomingBookingDto> findAllByItemOwnerIdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = :bookerId" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findAllByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                                           @Param("cursorId") Long cursorId,
+                                                           Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = :bookerId and b.status = :status" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findAllByBookerIdAndStatusAfterCursor(@Param("bookerId") Long bookerId,
+                                                                    @Param("status") Booking.Status status,
+                                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                                    @Param("cursorId") Long cursorId,
+                                                                    Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = :bookerId and b.end < :now" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findPastByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                            @Param("now") LocalDateTime now,
+                                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                                            @Param("cursorId") Long cursorId,
+                                                            Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = :bookerId and b.status = :status and b.archived = false" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findHotByBookerIdAndStatusAfterCursor(@Param("bookerId") Long bookerId,
+                                                                    @Param("status") Booking.Status status,
+                                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                                    @Param("cursorId") Long cursorId,
+                                                                    Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = :bookerId and b.start > :now and b.archived = false" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findFutureByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                              @Param("now") LocalDateTime now,
+                                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                                              @Param("cursorId") Long cursorId,
+                                                              Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.booker.id = :bookerId and b.start < :now and b.end > :now and b.archived = false" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findCurrentByBookerIdAfterCursor(@Param("bookerId") Long bookerId,
+                                                               @Param("now") LocalDateTime now,
+                                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                                               @Param("cursorId") Long cursorId,
+                                                               Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = :ownerId" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findAllByItemOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                                              @Param("cursorId") Long cursorId,
+                                                              Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = :ownerId and b.status = :status" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findAllByItemOwnerIdAndStatusAfterCursor(@Param("ownerId") Long ownerId,
+                                                                       @Param("status") Booking.Status status,
+                                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                                       @Param("cursorId") Long cursorId,
+                                                                       Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = :ownerId and b.end < :now" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findPastByItemOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                                               @Param("now") LocalDateTime now,
+                                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                                               @Param("cursorId") Long cursorId,
+                                                               Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = :ownerId and b.status = :status and b.archived = false" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findHotByItemOwnerIdAndStatusAfterCursor(@Param("ownerId") Long ownerId,
+                                                                       @Param("status") Booking.Status status,
+                                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                                       @Param("cursorId") Long cursorId,
+                                                                       Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = :ownerId and b.start > :now and b.archived = false" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findFutureByItemOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                                                 @Param("now") LocalDateTime now,
+                                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                                 @Param("cursorId") Long cursorId,
+                                                                 Pageable pageable);
+
+    @Query(SELECT_OUTCOMING_DTO + "where b.item.owner.id = :ownerId and b.start < :now and b.end > :now and b.archived = false" + AFTER_CURSOR)
+    List<OutcomingBookingDto> findCurrentByItemOwnerIdAfterCursor(@Param("ownerId") Long ownerId,
+                                                                  @Param("now") LocalDateTime now,
+                                                                  @Param("cursorStart") LocalDateTime cursorStart,
+                                                                  @Param("cursorId") Long cursorId,
+                                                                  Pageable pageable);
+
+    @Query(value = "SELECT last_b.item_id AS itemId, last_b.id AS id, " +
+            "last_b.booker_id AS bookerId, last_b.start_date AS startDate " +
+            "FROM (SELECT b.item_id, b.id, b.booker_id, b.start_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id DESC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status <> 'REJECTED' AND b.start_date < :now) AS last_b " +
+            "WHERE last_b.rn = 1 " +
+            "UNION ALL " +
+            "SELECT next_b.item_id AS itemId, next_b.id AS id, " +
+            "next_b.booker_id AS bookerId, next_b.start_date AS startDate " +
+            "FROM (SELECT b.item_id, b.id, b.booker_id, b.start_date, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status <> 'REJECTED' AND b.start_date > :now) AS next_b " +
+            "WHERE next_b.rn = 1",
+            nativeQuery = true)
+    List<BookingForItemView> findLastAndNextForItems(@Param("itemIds") Collection<Long> itemIds,
+                                                     @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT b.item_id AS itemId, b.id AS id, b.booker_id AS bookerId, b.start_date AS startDate " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id = :itemId AND b.status <> 'REJECTED' AND b.start_date < :now " +
+            "ORDER BY b.end_date DESC, b.id DESC " +
+            "LIMIT 1",
+            nativeQuery = true)
+    Optional<BookingForItemView> findLastForItem(@Param("itemId") long itemId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT b.item_id AS itemId, b.id AS id, b.booker_id AS bookerId, b.start_date AS startDate " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id = :itemId AND b.status <> 'REJECTED' AND b.start_date > :now " +
+            "ORDER BY b.start_date ASC, b.id ASC " +
+            "LIMIT 1",
+            nativeQuery = true)
+    Optional<BookingForItemView> findNextForItem(@Param("itemId") long itemId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT u.name AS authorName, " +
+            "EXISTS (SELECT 1 FROM items AS i WHERE i.id = :itemId) AS itemExists, " +
+            "EXISTS (SELECT 1 FROM bookings AS b " +
+            "WHERE b.booker_id = :authorId AND b.item_id = :itemId AND b.end_date < :now " +
+            "AND b.status <> 'REJECTED') AS bookedInPast " +
+            "FROM users AS u " +
+            "WHERE u.id = :authorId",
+            nativeQuery = true)
+    Optional<CommentEligibilityView> findCommentEligibility(@Param("authorId") long authorId,
+                                                            @Param("itemId") long itemId,
+                                                            @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingInterval> findIntervalsByItemId(long itemId, Collection<Booking.Status> statuses, LocalDateTime endAfter);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingInterval(b.id, b.start, b.end) from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3 and b.start < ?4 order by b.start asc")
+    List<BookingInterval> findIntervalsInRange(long itemId, Collection<Booking.Status> statuses,
+                                               LocalDateTime from, LocalDateTime to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :bookingId and b.status = :expectedStatus " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = :ownerId)")
+    int updateStatusByIdAndItemOwnerId(@Param("bookingId") Long bookingId,
+                                       @Param("ownerId") Long ownerId,
+                                       @Param("expectedStatus") Booking.Status expectedStatus,
+                                       @Param("status") Booking.Status status);
+
+    @Query("select b.id as id, b.item.id as itemId, b.status as status from Booking b " +
+            "where b.id in ?1 and b.item.owner.id = ?2")
+    List<BookingStatusView> findStatusesByIdInAndItemOwnerId(Collection<Long> bookingIds, Long ownerId);
 }
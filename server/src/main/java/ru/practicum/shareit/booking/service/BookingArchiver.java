@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingArchiver {
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final Duration horizon;
+    private final int chunkSize;
+
+    public BookingArchiver(BookingJdbcRepository bookingJdbcRepository,
+                           @Value("${shareit.booking.archive.horizon}") Duration horizon,
+                           @Value("${shareit.booking.archive.chunk-size}") int chunkSize) {
+        if (horizon.isNegative()) {
+            throw new IllegalArgumentException("Горизонт архивации бронирований не может быть отрицательным");
+        }
+        this.bookingJdbcRepository = bookingJdbcRepository;
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Archives in chunks, each committed on its own, so that the hot partition
+     * is never locked for the whole run.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.interval}",
+            initialDelayString = "${shareit.booking.archive.interval}")
+    public void archive() {
+        LocalDateTime endedBefore = LocalDateTime.now().minus(horizon);
+        int archived = 0;
+        int chunk;
+        do {
+            chunk = bookingJdbcRepository.archiveEndedBefore(endedBefore, chunkSize);
+            archived += chunk;
+        } while (chunk == chunkSize);
+        log.info("Перенесено в архив {} бронирований, завершившихся до {}", archived, endedBefore);
+    }
+}
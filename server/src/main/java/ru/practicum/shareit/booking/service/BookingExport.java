@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
+
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface BookingExport {
+    void writeTo(Consumer<OutcomingBookingDto> consumer);
+}
@@ -0,0 +1,231 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Active (WAITING and APPROVED) booking intervals per item. Intervals loaded from the database
+ * may overlap each other, so they are kept merged into non-overlapping blocks keyed by start:
+ * the only block that can conflict with [start, end) is the one with the greatest start before
+ * {@code end}. Blocks that have ended are dropped from the head. Only items with active
+ * intervals are kept; an item whose intervals are gone is loaded again on the next check.
+ * Access to an item is serialized by one of a fixed number of striped locks.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Set<Booking.Status> ACTIVE_STATUSES = EnumSet.of(Booking.Status.WAITING, Booking.Status.APPROVED);
+    private static final int LOCK_STRIPES = 64;
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemIntervals> intervalsByItemId = new ConcurrentHashMap<>();
+    private final Lock[] locks = createLocks();
+
+    public <T> T withItemLock(Long itemId, Supplier<T> action) {
+        Lock lock = lockFor(itemId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return withItemLock(itemId, () -> {
+            ItemIntervals intervals = getIntervals(itemId);
+            intervals.removeEnded(LocalDateTime.now());
+            boolean overlaps = intervals.overlaps(start, end);
+            evictIfEmpty(itemId, intervals);
+            return overlaps;
+        });
+    }
+
+    public void add(Long itemId, BookingInterval interval) {
+        withItemLock(itemId, () -> {
+            getIntervals(itemId).add(interval);
+            return null;
+        });
+        TransactionUtil.afterRollback(() -> removeInterval(itemId, interval.getId()));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        removeInterval(itemId, bookingId)
+                .ifPresent(removed -> TransactionUtil.afterRollback(() -> restore(itemId, removed)));
+    }
+
+    private Optional<BookingInterval> removeInterval(Long itemId, Long bookingId) {
+        return withItemLock(itemId, () -> {
+            ItemIntervals intervals = intervalsByItemId.get(itemId);
+            if (intervals == null) {
+                return Optional.empty();
+            }
+            Optional<BookingInterval> removed = intervals.remove(bookingId);
+            evictIfEmpty(itemId, intervals);
+            return removed;
+        });
+    }
+
+    /**
+     * An item evicted meanwhile gets the restored interval from the database on the next load.
+     */
+    private void restore(Long itemId, BookingInterval removed) {
+        withItemLock(itemId, () -> {
+            ItemIntervals intervals = intervalsByItemId.get(itemId);
+            if (intervals != null) {
+                intervals.add(removed);
+            }
+            return null;
+        });
+    }
+
+    private ItemIntervals getIntervals(Long itemId) {
+        ItemIntervals intervals = intervalsByItemId.get(itemId);
+        if (intervals == null) {
+            log.debug("Загрузка активных бронирований вещи с id = {} в индекс интервалов", itemId);
+            intervals = new ItemIntervals();
+            for (BookingInterval interval : bookingRepository.findIntervalsByItemId(itemId, ACTIVE_STATUSES, LocalDateTime.now())) {
+                intervals.add(interval);
+            }
+            intervalsByItemId.put(itemId, intervals);
+        }
+        return intervals;
+    }
+
+    private void evictIfEmpty(Long itemId, ItemIntervals intervals) {
+        if (intervals.isEmpty()) {
+            intervalsByItemId.remove(itemId);
+        }
+    }
+
+    private Lock lockFor(Long itemId) {
+        return locks[Math.floorMod(itemId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Lock[] createLocks() {
+        Lock[] locks = new Lock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    /**
+     * Blocks never overlap, so both their starts and their ends grow along the map.
+     */
+    private static class ItemIntervals {
+        private final NavigableMap<LocalDateTime, Block> blocksByStart = new TreeMap<>();
+        private final Map<Long, BookingInterval> intervalsById = new HashMap<>();
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Block> candidate = blocksByStart.lowerEntry(end);
+            return candidate != null && candidate.getValue().end.isAfter(start);
+        }
+
+        /**
+         * Merges the interval with the blocks it overlaps. An empty interval cannot conflict and is skipped.
+         */
+        void add(BookingInterval interval) {
+            if (!interval.getStart().isBefore(interval.getEnd()) || intervalsById.containsKey(interval.getId())) {
+                return;
+            }
+            intervalsById.put(interval.getId(), interval);
+            Block merged = new Block(interval);
+            Map.Entry<LocalDateTime, Block> entry = blocksByStart.lowerEntry(interval.getEnd());
+            while (entry != null && entry.getValue().end.isAfter(interval.getStart())) {
+                merged.absorb(entry.getValue());
+                blocksByStart.remove(entry.getKey());
+                entry = blocksByStart.lowerEntry(entry.getKey());
+            }
+            blocksByStart.put(merged.start, merged);
+        }
+
+        /**
+         * Only the block that held the interval is split again from its remaining intervals.
+         */
+        Optional<BookingInterval> remove(Long bookingId) {
+            BookingInterval interval = intervalsById.remove(bookingId);
+            if (interval == null) {
+                return Optional.empty();
+            }
+            Map.Entry<LocalDateTime, Block> entry = blocksByStart.floorEntry(interval.getStart());
+            if (entry != null) {
+                blocksByStart.remove(entry.getKey());
+                List<BookingInterval> rest = entry.getValue().intervals;
+                rest.remove(interval);
+                rest.sort(Comparator.comparing(BookingInterval::getStart));
+                Block block = null;
+                for (BookingInterval remaining : rest) {
+                    if (block != null && block.end.isAfter(remaining.getStart())) {
+                        block.add(remaining);
+                    } else {
+                        block = new Block(remaining);
+                        blocksByStart.put(block.start, block);
+                    }
+                }
+            }
+            return Optional.of(interval);
+        }
+
+        void removeEnded(LocalDateTime now) {
+            while (!blocksByStart.isEmpty() && !blocksByStart.firstEntry().getValue().end.isAfter(now)) {
+                blocksByStart.pollFirstEntry().getValue().intervals
+                        .forEach(interval -> intervalsById.remove(interval.getId()));
+            }
+        }
+
+        boolean isEmpty() {
+            return blocksByStart.isEmpty();
+        }
+    }
+
+    private static class Block {
+        private final List<BookingInterval> intervals = new ArrayList<>();
+        private LocalDateTime start;
+        private LocalDateTime end;
+
+        Block(BookingInterval interval) {
+            start = interval.getStart();
+            end = interval.getEnd();
+            intervals.add(interval);
+        }
+
+        void add(BookingInterval interval) {
+            intervals.add(interval);
+            if (interval.getEnd().isAfter(end)) {
+                end = interval.getEnd();
+            }
+        }
+
+        void absorb(Block other) {
+            intervals.addAll(other.intervals);
+            if (other.start.isBefore(start)) {
+                start = other.start;
+            }
+            if (other.end.isAfter(end)) {
+                end = other.end;
+            }
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     OutcomingBookingDto add(Long userId, IncomingBookingDto incomingBookingDto);
 
     OutcomingBookingDto changeStatus(Long bookingId, Boolean approved, Long itemOwnerId);
 
+    List<BookingStatusChangeDto> changeStatuses(IncomingBookingStatusDto incomingBookingStatusDto, Long itemOwnerId);
+
     OutcomingBookingDto getById(Long bookingId, Long userId);
 
     Collection<OutcomingBookingDto> getAllByUserId(Long userId, State state, Integer from, Integer size);
 
     Collection<OutcomingBookingDto> getAllForItemOwnerId(Long itemOwnerId, State state, Integer from, Integer size);
+
+    CursorPage<OutcomingBookingDto> getPageByUserId(Long userId, State state, String cursor, Integer size);
+
+    CursorPage<OutcomingBookingDto> getPageForItemOwnerId(Long itemOwnerId, State state, String cursor, Integer size);
+
+    BookingExport exportForItemOwnerId(Long itemOwnerId);
 }
@@ -4,9 +4,15 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
@@ -14,12 +20,24 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetCursor;
 import ru.practicum.shareit.util.PageableUtil;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,16 +46,22 @@ import java.util.Collection;
 public class BookingServiceImpl implements BookingService {
     private static final String USER_NOT_FOUND_MSG = "Пользователь с id = %d не найден";
     private static final String ITEM_NOT_AVAILABLE_MSG = "Предмет с id = %d не доступен";
+    private static final String ITEM_ALREADY_BOOKED_MSG = "Предмет с id = %d уже забронирован на эти даты";
     private static final String BOOKING_NOT_FOUND_MSG = "Бронирование с id = %d не найдено";
     private static final String ITEM_NOT_FOUND_MSG = "Вещь с id = %d не найдена";
     private static final String NO_PERMISSION_MSG =
             "У пользователя с id = %d нет прав на изменение/получение бронирования с id = %d";
-    private static final String CANT_CHANGE_STATUS_MSG = "Нельзя изменить статус с APPROVED";
+    private static final String CANT_CHANGE_STATUS_MSG = "Нельзя изменить статус с %s";
     private static final String CANT_BOOK_BY_ITEM_OWNER_MSG = "Хозяин вещи не может создать бронь своей вещи";
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
     private final BookingsGetter bookingsGetter;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final LastAndNextBookingsCache lastAndNextBookingsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Outbox outbox;
 
     @Transactional
     public OutcomingBookingDto add(Long bookerId, IncomingBookingDto incomingBookingDto) {
@@ -57,7 +81,21 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(booker);
         booking.setItem(item);
 
-        return BookingMapper.toOutcomingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingIntervalIndex.withItemLock(itemId, () -> {
+            ifItemAlreadyBookedThrow(itemId, booking);
+            Booking saved = bookingRepository.save(booking);
+            bookingIntervalIndex.add(itemId, new BookingInterval(saved.getId(), saved.getStart(), saved.getEnd()));
+            return saved;
+        });
+        lastAndNextBookingsCache.invalidate(itemId);
+        outbox.record(AggregateType.BOOKING, savedBooking.getId(), ChangeType.CREATED);
+        return BookingMapper.toOutcomingDto(savedBooking);
+    }
+
+    private void ifItemAlreadyBookedThrow(Long itemId, Booking booking) {
+        if (bookingIntervalIndex.overlaps(itemId, booking.getStart(), booking.getEnd())) {
+            throw new ItemNotAvailableException(String.format(ITEM_ALREADY_BOOKED_MSG, itemId));
+        }
     }
 
     private void ifUserEqualsOwnerThrow(Long bookerId, Item item) {
@@ -72,23 +110,87 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    /**
+     * The conditional update both changes the status and checks the owner, then the outbox row is
+     * written and the booking is read back for the response. Only when nothing is updated is the
+     * reason looked up, the owner before the status: a user who does not own the item gets 404
+     * even for a booking that is no longer WAITING.
+     */
     @Override
     @Transactional
     public OutcomingBookingDto changeStatus(Long bookingId, Boolean approved, Long itemOwnerId) {
+        Booking.Status newStatus = Boolean.TRUE.equals(approved) ? Booking.Status.APPROVED : Booking.Status.REJECTED;
+        int updated = bookingRepository.updateStatusByIdAndItemOwnerId(
+                bookingId, itemOwnerId, Booking.Status.WAITING, newStatus);
+        if (updated == 0) {
+            throwStatusNotChangedReason(bookingId, itemOwnerId);
+        }
+        outbox.record(AggregateType.BOOKING, bookingId, ChangeType.UPDATED);
+
+        OutcomingBookingDto changedBooking = bookingRepository.findOutcomingDtoById(bookingId).orElseThrow(
+                () -> new BookingNotFoundException(String.format(BOOKING_NOT_FOUND_MSG, bookingId)));
+        Long itemId = changedBooking.getItem().getId();
+        if (!BookingIntervalIndex.ACTIVE_STATUSES.contains(newStatus)) {
+            bookingIntervalIndex.remove(itemId, bookingId);
+        }
+        lastAndNextBookingsCache.invalidate(itemId);
+        return changedBooking;
+    }
+
+    @Override
+    @Transactional
+    public List<BookingStatusChangeDto> changeStatuses(IncomingBookingStatusDto incomingBookingStatusDto, Long itemOwnerId) {
+        ifUserDoesntExistThrow(itemOwnerId);
+
+        Booking.Status newStatus = Boolean.TRUE.equals(incomingBookingStatusDto.getApproved()) ?
+                Booking.Status.APPROVED : Booking.Status.REJECTED;
+        List<Long> bookingIds = new ArrayList<>(new LinkedHashSet<>(incomingBookingStatusDto.getBookingIds()));
+        Map<Long, BookingStatusView> ownedBookings = bookingRepository
+                .findStatusesByIdInAndItemOwnerId(bookingIds, itemOwnerId).stream()
+                .collect(Collectors.toMap(BookingStatusView::getId, Function.identity()));
+
+        List<Long> waitingIds = bookingIds.stream()
+                .filter(id -> ownedBookings.containsKey(id) && ownedBookings.get(id).getStatus() == Booking.Status.WAITING)
+                .collect(Collectors.toList());
+        int[] updateCounts = waitingIds.isEmpty() ?
+                new int[0] :
+                bookingJdbcRepository.updateWaitingStatuses(waitingIds, newStatus);
+        Map<Long, Integer> updatedRowsById = new HashMap<>();
+        for (int i = 0; i < waitingIds.size(); i++) {
+            updatedRowsById.put(waitingIds.get(i), updateCounts[i]);
+        }
+
+        List<BookingStatusChangeDto> results = new ArrayList<>(bookingIds.size());
+        List<Long> changedIds = new ArrayList<>(waitingIds.size());
+        for (Long bookingId : bookingIds) {
+            BookingStatusView booking = ownedBookings.get(bookingId);
+            if (booking == null) {
+                results.add(new BookingStatusChangeDto(bookingId, BookingStatusChangeDto.Outcome.NOT_FOUND, null));
+            } else if (updatedRowsById.getOrDefault(bookingId, 0) == 0) {
+                results.add(new BookingStatusChangeDto(bookingId, BookingStatusChangeDto.Outcome.NOT_WAITING, booking.getStatus()));
+            } else {
+                if (!BookingIntervalIndex.ACTIVE_STATUSES.contains(newStatus)) {
+                    bookingIntervalIndex.remove(booking.getItemId(), bookingId);
+                }
+                lastAndNextBookingsCache.invalidate(booking.getItemId());
+                results.add(new BookingStatusChangeDto(bookingId, BookingStatusChangeDto.Outcome.CHANGED, newStatus));
+                changedIds.add(bookingId);
+            }
+        }
+        outbox.recordAll(AggregateType.BOOKING, changedIds, ChangeType.UPDATED);
+        return results;
+    }
+
+    private void throwStatusNotChangedReason(Long bookingId, Long itemOwnerId) {
         ifUserDoesntExistThrow(itemOwnerId);
 
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(
                 () -> new BookingNotFoundException(String.format(BOOKING_NOT_FOUND_MSG, bookingId)));
 
-        ifBookingIsApprovedThrow(booking);
-
         Item item = booking.getItem();
-        Long ownerId = item.getOwner().getId();
+        ifUserNotEqualsOwnerThrow(itemOwnerId, item, item.getOwner().getId());
 
-        ifUserNotEqualsOwnerThrow(itemOwnerId, item, ownerId);
-
-        booking.setStatus(Boolean.TRUE.equals(approved) ? Booking.Status.APPROVED : Booking.Status.REJECTED);
-        return BookingMapper.toOutcomingDto(bookingRepository.save(booking));
+        throw new IllegalArgumentException(String.format(CANT_CHANGE_STATUS_MSG, booking.getStatus()));
     }
 
     private void ifUserNotEqualsOwnerThrow(Long userId, Item item, Long ownerId) {
@@ -97,12 +199,6 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private void ifBookingIsApprovedThrow(Booking booking) {
-        if (booking.getStatus().equals(Booking.Status.APPROVED)) {
-            throw new IllegalArgumentException(CANT_CHANGE_STATUS_MSG);
-        }
-    }
-
     private void ifUserDoesntExistThrow(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException(String.format(USER_NOT_FOUND_MSG, userId));
@@ -127,13 +223,45 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public Collection<OutcomingBookingDto> getAllByUserId(Long userId, State state, Integer from, Integer size) {
         ifUserDoesntExistThrow(userId);
-        return BookingMapper.toOutcomingDtoAll(bookingsGetter.forUser(userId, state, PageableUtil.getPageRequestSortByStart(from, size)));
+        return bookingsGetter.forUser(userId, state, PageableUtil.getPageRequestSortByStart(from, size));
     }
 
     @Override
     public Collection<OutcomingBookingDto> getAllForItemOwnerId(Long itemOwnerId, State state, Integer from, Integer size) {
         ifUserDoesntExistThrow(itemOwnerId);
-        Collection<Long> itemIds = itemRepository.findIdsByOwnerId(itemOwnerId);
-        return BookingMapper.toOutcomingDtoAll(bookingsGetter.forItemOwner(itemIds, state, PageableUtil.getPageRequestSortByStart(from, size)));
+        return bookingsGetter.forItemOwner(itemOwnerId, state, PageableUtil.getPageRequestSortByStart(from, size));
+    }
+
+    @Override
+    public CursorPage<OutcomingBookingDto> getPageByUserId(Long userId, State state, String cursor, Integer size) {
+        ifUserDoesntExistThrow(userId);
+        List<OutcomingBookingDto> bookings = bookingsGetter.forUser(userId, state, toKeysetCursor(cursor), size + 1);
+        return toPage(bookings, size);
+    }
+
+    @Override
+    public CursorPage<OutcomingBookingDto> getPageForItemOwnerId(Long itemOwnerId, State state, String cursor, Integer size) {
+        ifUserDoesntExistThrow(itemOwnerId);
+        List<OutcomingBookingDto> bookings = bookingsGetter.forItemOwner(itemOwnerId, state, toKeysetCursor(cursor), size + 1);
+        return toPage(bookings, size);
+    }
+
+    /**
+     * The owner is checked right away, while the export itself runs later on the thread
+     * that writes the response, in a transaction of its own.
+     */
+    @Override
+    public BookingExport exportForItemOwnerId(Long itemOwnerId) {
+        ifUserDoesntExistThrow(itemOwnerId);
+        return consumer -> transactionTemplate.executeWithoutResult(
+                status -> bookingJdbcRepository.streamForItemOwner(itemOwnerId, consumer));
+    }
+
+    private static KeysetCursor toKeysetCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+    }
+
+    private static CursorPage<OutcomingBookingDto> toPage(List<OutcomingBookingDto> bookings, int size) {
+        return CursorPage.of(bookings, size, booking -> new KeysetCursor(booking.getStart(), booking.getId()));
     }
 }
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.KeysetCursor;
+import ru.practicum.shareit.util.PageableUtil;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 
@@ -16,31 +20,70 @@ import java.util.function.BiFunction;
 public class BookingsGetter {
     private BookingRepository bookingRepository;
 
-    private final Map<State, BiFunction<Long, Pageable, Collection<Booking>>> forUser =
+    private final Map<State, BiFunction<Long, Pageable, List<OutcomingBookingDto>>> forUser =
             Map.of(
                     State.ALL, (bookerId, pageable) -> bookingRepository.findAllByBookerId(bookerId, pageable),
-                    State.WAITING, (bookerId, pageable) -> bookingRepository.findAllByBookerIdAndStatus(bookerId, Booking.Status.WAITING, pageable),
+                    State.WAITING, (bookerId, pageable) -> bookingRepository.findHotByBookerIdAndStatus(bookerId, Booking.Status.WAITING, pageable),
                     State.REJECTED, (bookerId, pageable) -> bookingRepository.findAllByBookerIdAndStatus(bookerId, Booking.Status.REJECTED, pageable),
                     State.PAST, (bookerId, pageable) -> bookingRepository.findAllByBookerIdAndEndBefore(bookerId, LocalDateTime.now(), pageable),
                     State.FUTURE, (bookerId, pageable) -> bookingRepository.findAllByBookerIdAndStartAfter(bookerId, LocalDateTime.now(), pageable),
                     State.CURRENT, (bookerId, pageable) -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(bookerId, LocalDateTime.now(), LocalDateTime.now(), pageable)
             );
 
-    private final Map<State, BiFunction<Collection<Long>, Pageable,Collection<Booking>>> forItemOwner =
+    private final Map<State, BiFunction<Long, Pageable, List<OutcomingBookingDto>>> forItemOwner =
             Map.of(
-                    State.ALL, (itemIds, pageable) -> bookingRepository.findAllByItemIdIn(itemIds, pageable),
-                    State.WAITING, (ids, pageable) -> bookingRepository.findAllByItemIdInAndStatus(ids, Booking.Status.WAITING, pageable),
-                    State.REJECTED, (ids, pageable) -> bookingRepository.findAllByItemIdInAndStatus(ids, Booking.Status.REJECTED, pageable),
-                    State.PAST, (ids, pageable) -> bookingRepository.findAllByItemIdInAndEndBefore(ids, LocalDateTime.now(), pageable),
-                    State.FUTURE, (ids, pageable) -> bookingRepository.findAllByItemIdInAndStartAfter(ids, LocalDateTime.now(), pageable),
-                    State.CURRENT, (ids, pageable) -> bookingRepository.findAllByItemIdInAndStartBeforeAndEndAfter(ids, LocalDateTime.now(), LocalDateTime.now(), pageable)
+                    State.ALL, (ownerId, pageable) -> bookingRepository.findAllByItemOwnerId(ownerId, pageable),
+                    State.WAITING, (ownerId, pageable) -> bookingRepository.findHotByItemOwnerIdAndStatus(ownerId, Booking.Status.WAITING, pageable),
+                    State.REJECTED, (ownerId, pageable) -> bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Booking.Status.REJECTED, pageable),
+                    State.PAST, (ownerId, pageable) -> bookingRepository.findAllByItemOwnerIdAndEndBefore(ownerId, LocalDateTime.now(), pageable),
+                    State.FUTURE, (ownerId, pageable) -> bookingRepository.findAllByItemOwnerIdAndStartAfter(ownerId, LocalDateTime.now(), pageable),
+                    State.CURRENT, (ownerId, pageable) -> bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(ownerId, LocalDateTime.now(), LocalDateTime.now(), pageable)
             );
 
-    public Collection<Booking> forUser(long userId, State state, Pageable pageable) {
+    private final Map<State, CursorQuery<Long>> forUserAfterCursor =
+            Map.of(
+                    State.ALL, (bookerId, c, pageable) -> bookingRepository.findAllByBookerIdAfterCursor(bookerId, c.getTimestamp(), c.getId(), pageable),
+                    State.WAITING, (bookerId, c, pageable) -> bookingRepository.findHotByBookerIdAndStatusAfterCursor(bookerId, Booking.Status.WAITING, c.getTimestamp(), c.getId(), pageable),
+                    State.REJECTED, (bookerId, c, pageable) -> bookingRepository.findAllByBookerIdAndStatusAfterCursor(bookerId, Booking.Status.REJECTED, c.getTimestamp(), c.getId(), pageable),
+                    State.PAST, (bookerId, c, pageable) -> bookingRepository.findPastByBookerIdAfterCursor(bookerId, LocalDateTime.now(), c.getTimestamp(), c.getId(), pageable),
+                    State.FUTURE, (bookerId, c, pageable) -> bookingRepository.findFutureByBookerIdAfterCursor(bookerId, LocalDateTime.now(), c.getTimestamp(), c.getId(), pageable),
+                    State.CURRENT, (bookerId, c, pageable) -> bookingRepository.findCurrentByBookerIdAfterCursor(bookerId, LocalDateTime.now(), c.getTimestamp(), c.getId(), pageable)
+            );
+
+    private final Map<State, CursorQuery<Long>> forItemOwnerAfterCursor =
+            Map.of(
+                    State.ALL, (ownerId, c, pageable) -> bookingRepository.findAllByItemOwnerIdAfterCursor(ownerId, c.getTimestamp(), c.getId(), pageable),
+                    State.WAITING, (ownerId, c, pageable) -> bookingRepository.findHotByItemOwnerIdAndStatusAfterCursor(ownerId, Booking.Status.WAITING, c.getTimestamp(), c.getId(), pageable),
+                    State.REJECTED, (ownerId, c, pageable) -> bookingRepository.findAllByItemOwnerIdAndStatusAfterCursor(ownerId, Booking.Status.REJECTED, c.getTimestamp(), c.getId(), pageable),
+                    State.PAST, (ownerId, c, pageable) -> bookingRepository.findPastByItemOwnerIdAfterCursor(ownerId, LocalDateTime.now(), c.getTimestamp(), c.getId(), pageable),
+                    State.FUTURE, (ownerId, c, pageable) -> bookingRepository.findFutureByItemOwnerIdAfterCursor(ownerId, LocalDateTime.now(), c.getTimestamp(), c.getId(), pageable),
+                    State.CURRENT, (ownerId, c, pageable) -> bookingRepository.findCurrentByItemOwnerIdAfterCursor(ownerId, LocalDateTime.now(), c.getTimestamp(), c.getId(), pageable)
+            );
+
+    public List<OutcomingBookingDto> forUser(long userId, State state, Pageable pageable) {
         return forUser.get(state).apply(userId, pageable);
     }
 
-    public Collection<Booking> forItemOwner(Collection<Long> itemIds, State state, Pageable pageable) {
-        return forItemOwner.get(state).apply(itemIds, pageable);
+    public List<OutcomingBookingDto> forItemOwner(long ownerId, State state, Pageable pageable) {
+        return forItemOwner.get(state).apply(ownerId, pageable);
+    }
+
+    public List<OutcomingBookingDto> forUser(long userId, State state, KeysetCursor cursor, int limit) {
+        if (cursor == null) {
+            return forUser(userId, state, PageableUtil.getPageRequestSortByStart(0, limit));
+        }
+        return forUserAfterCursor.get(state).apply(userId, cursor, PageRequest.of(0, limit));
+    }
+
+    public List<OutcomingBookingDto> forItemOwner(long ownerId, State state, KeysetCursor cursor, int limit) {
+        if (cursor == null) {
+            return forItemOwner(ownerId, state, PageableUtil.getPageRequestSortByStart(0, limit));
+        }
+        return forItemOwnerAfterCursor.get(state).apply(ownerId, cursor, PageRequest.of(0, limit));
+    }
+
+    @FunctionalInterface
+    private interface CursorQuery<T> {
+        List<OutcomingBookingDto> apply(T key, KeysetCursor cursor, Pageable pageable);
     }
 }
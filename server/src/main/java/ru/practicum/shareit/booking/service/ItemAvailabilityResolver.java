@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityResolver {
+    private final BookingRepository bookingRepository;
+
+    /**
+     * Free slots of the item within [from, to): the gaps between its active bookings,
+     * found in one pass over the bookings ordered by start.
+     */
+    public List<TimeSlotDto> freeSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> bookings = bookingRepository.findIntervalsInRange(itemId,
+                BookingIntervalIndex.ACTIVE_STATUSES, from, to);
+
+        List<TimeSlotDto> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (BookingInterval booking : bookings) {
+            if (booking.getStart().isAfter(freeFrom)) {
+                slots.add(new TimeSlotDto(freeFrom, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(freeFrom)) {
+                freeFrom = booking.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            slots.add(new TimeSlotDto(freeFrom, to));
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.util.ExpiringLruCache;
+
+/**
+ * Last/next booking pairs per item. An entry expires when its next booking starts,
+ * because from that moment the pair is different, and is dropped when a booking of the item changes.
+ */
+@Component
+public class LastAndNextBookingsCache extends ExpiringLruCache<Long, LastAndNextBookingDto> {
+    public LastAndNextBookingsCache(MeterRegistry meterRegistry,
+                                    @Value("${shareit.booking.last-next-cache.max-size}") int maxSize) {
+        super(meterRegistry, "shareit.booking.last-next-cache", "Items with a cached last/next booking pair", maxSize);
+    }
+}
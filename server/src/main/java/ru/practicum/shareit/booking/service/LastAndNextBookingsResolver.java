@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads last/next booking pairs through {@link LastAndNextBookingsCache}. The cache version is taken
+ * before the bookings are queried, so a pair read before a booking change commits is not stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class LastAndNextBookingsResolver {
+    private final BookingRepository bookingRepository;
+    private final LastAndNextBookingsCache lastAndNextBookingsCache;
+
+    public LastAndNextBookingDto forItem(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        LastAndNextBookingDto cached = lastAndNextBookingsCache.get(itemId, now);
+        if (cached != null) {
+            return cached;
+        }
+        long readVersion = lastAndNextBookingsCache.version();
+        BookingDtoForItem lastBooking = bookingRepository.findLastForItem(itemId, now)
+                .map(BookingMapper::toBookingDtoForItem)
+                .orElse(null);
+        Optional<BookingForItemView> nextView = bookingRepository.findNextForItem(itemId, now);
+        LastAndNextBookingDto bookings = new LastAndNextBookingDto(lastBooking,
+                nextView.map(BookingMapper::toBookingDtoForItem).orElse(null));
+        lastAndNextBookingsCache.putIfUnchanged(itemId, bookings,
+                nextView.map(BookingForItemView::getStartDate).orElse(null), readVersion);
+        return bookings;
+    }
+
+    /**
+     * Items without bookings are absent from the result.
+     */
+    public Map<Long, LastAndNextBookingDto> forItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LastAndNextBookingDto> result = new HashMap<>();
+        List<Long> missedIds = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            LastAndNextBookingDto cached = lastAndNextBookingsCache.get(itemId, now);
+            if (cached == null) {
+                missedIds.add(itemId);
+            } else if (!LastAndNextBookingDto.EMPTY.equals(cached)) {
+                result.put(itemId, cached);
+            }
+        }
+        if (missedIds.isEmpty()) {
+            return result;
+        }
+
+        long readVersion = lastAndNextBookingsCache.version();
+        List<BookingForItemView> views = bookingRepository.findLastAndNextForItems(missedIds, now);
+        Map<Long, BookingDtoForItem> lastBookings = new HashMap<>();
+        Map<Long, BookingForItemView> nextViews = new HashMap<>();
+        for (BookingForItemView view : views) {
+            if (view.getStartDate().isBefore(now)) {
+                lastBookings.put(view.getItemId(), BookingMapper.toBookingDtoForItem(view));
+            } else {
+                nextViews.put(view.getItemId(), view);
+            }
+        }
+
+        for (Long itemId : missedIds) {
+            BookingForItemView nextView = nextViews.get(itemId);
+            BookingDtoForItem lastBooking = lastBookings.get(itemId);
+            if (lastBooking == null && nextView == null) {
+                lastAndNextBookingsCache.putIfUnchanged(itemId, LastAndNextBookingDto.EMPTY, null, readVersion);
+                continue;
+            }
+            LastAndNextBookingDto bookings = nextView == null ?
+                    new LastAndNextBookingDto(lastBooking, null) :
+                    new LastAndNextBookingDto(lastBooking, BookingMapper.toBookingDtoForItem(nextView));
+            lastAndNextBookingsCache.putIfUnchanged(itemId, bookings,
+                    nextView == null ? null : nextView.getStartDate(), readVersion);
+            result.put(itemId, bookings);
+        }
+        return result;
+    }
+}
@@ -2,20 +2,32 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.OutcomingItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.SearchSort;
+import ru.practicum.shareit.util.CursorPage;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NEGATIVE_COMMENTS_LIMIT_MSG = "Число комментариев не может быть отрицательным: %d";
     private final ItemService itemService;
 
     @PostMapping
@@ -25,6 +37,13 @@ public class ItemController {
         return itemService.add(item, ownerId);
     }
 
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ItemImportResultDto postItems(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                         InputStream items) {
+        log.info("Получен запрос POST /items/batch с заголовком X-Sharer-User-Id = {}", ownerId);
+        return itemService.importItems(ownerId, items);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto postComment(@RequestHeader("X-Sharer-User-Id") Long authorId,
                                   @PathVariable Long itemId,
@@ -43,25 +62,69 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public OutcomingItemDto getByItemId(@PathVariable long itemId,
-                                        @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                        @RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestParam(required = false) Integer commentsLimit) {
         log.info("Получен запрос GET /items/{} с заголовком X-Sharer-User-Id = {}", itemId, userId);
-        return itemService.getByItemId(itemId, userId);
+        ifNegativeCommentsLimitThrow(commentsLimit);
+        return itemService.getByItemId(itemId, userId, commentsLimit);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable long itemId,
+                                                        @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(defaultValue = "10") Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос GET /items/{}/comments?size={}&cursor={} с заголовком X-Sharer-User-Id = {}",
+                itemId, size, cursor, userId);
+        CursorPage<CommentDto> page = itemService.getComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping
     public Collection<OutcomingItemDto> getByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                     @RequestParam(defaultValue = "0") Integer from,
-                                                    @RequestParam(defaultValue = "10") Integer size) {
+                                                    @RequestParam(defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) Integer commentsLimit) {
         log.info("Получен запрос GET /items с заголовком X-Sharer-User-Id = {}", userId);
-        return itemService.getByUserId(userId, from, size);
+        ifNegativeCommentsLimitThrow(commentsLimit);
+        return itemService.getByUserId(userId, from, size, commentsLimit);
     }
 
     @GetMapping("/search")
     public Collection<ItemDto> search(@RequestParam String text,
                                       @RequestHeader("X-Sharer-User-Id") Long userId,
                                       @RequestParam(defaultValue = "0") Integer from,
-                                      @RequestParam(defaultValue = "10") Integer size) {
-        log.info("Получен запрос GET /items/search?text={} с заголовком X-Sharer-User-Id = {}", text, userId);
-        return itemService.searchInNameOrDescription(text, from, size);
+                                      @RequestParam(defaultValue = "10") Integer size,
+                                      @RequestParam(defaultValue = "ID") SearchSort sort) {
+        log.info("Получен запрос GET /items/search?text={}&sort={} с заголовком X-Sharer-User-Id = {}", text, sort, userId);
+        return itemService.searchInNameOrDescription(text, from, size, sort);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestHeader("X-Sharer-User-Id") Long userId,
+                                @RequestParam(defaultValue = "10") Integer limit) {
+        log.info("Получен запрос GET /items/suggest?prefix={} с заголовком X-Sharer-User-Id = {}", prefix, userId);
+        return itemService.suggest(prefix, limit);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlotDto> getAvailability(@PathVariable long itemId,
+                                             @RequestHeader("X-Sharer-User-Id") Long userId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос GET /items/{}/availability?from={}&to={} с заголовком X-Sharer-User-Id = {}",
+                itemId, from, to, userId);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    private static void ifNegativeCommentsLimitThrow(Integer commentsLimit) {
+        if (commentsLimit != null && commentsLimit < 0) {
+            throw new IllegalArgumentException(String.format(NEGATIVE_COMMENTS_LIMIT_MSG, commentsLimit));
+        }
     }
 }
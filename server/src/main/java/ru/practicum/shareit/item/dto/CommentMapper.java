@@ -22,12 +22,23 @@ public class CommentMapper {
     }
 
     public static CommentDto toCommentDto(Comment comment) {
+        return toCommentDto(comment, comment.getAuthor().getName());
+    }
+
+    public static CommentDto toCommentDto(Comment comment, String authorName) {
         return new CommentDto(comment.getId(),
                 comment.getText(),
-                comment.getAuthor().getName(),
+                authorName,
                 comment.getCreatedAt());
     }
 
+    public static CommentDto toCommentDto(CommentView view) {
+        return new CommentDto(view.getId(),
+                view.getText(),
+                view.getAuthorName(),
+                view.getCreatedAt());
+    }
+
     public static List<CommentDto> toCommentDtoAll(Collection<Comment> comments) {
         return comments.stream()
                 .map(CommentMapper::toCommentDto)
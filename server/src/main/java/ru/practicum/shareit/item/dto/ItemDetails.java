@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * The part of an item response that is the same for every user.
+ */
+@Value
+public class ItemDetails {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    List<CommentDto> comments;
+}
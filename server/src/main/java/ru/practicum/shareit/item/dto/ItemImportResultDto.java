@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ItemImportResultDto {
+    int created;
+    int rejected;
+    long durationMillis;
+    long itemsPerSecond;
+    List<ItemImportRowDto> rows;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+@Value
+public class ItemImportRowDto {
+    public enum Outcome {
+        CREATED, INVALID, FAILED
+    }
+
+    int row;
+    Outcome outcome;
+    Long itemId;
+    String error;
+}
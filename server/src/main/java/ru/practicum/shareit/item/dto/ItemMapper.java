@@ -1,7 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -35,16 +34,31 @@ public final class ItemMapper {
         return item;
     }
 
-    public static OutcomingItemDto toOutputItemDto(Item item, Booking lastBooking, Booking nextBooking) {
-        BookingDtoForItem last = null;
-        if (lastBooking != null) {
-            last = new BookingDtoForItem(lastBooking.getId(), lastBooking.getBooker().getId());
-        }
-        BookingDtoForItem next = null;
-        if (nextBooking != null) {
-            next = new BookingDtoForItem(nextBooking.getId(), nextBooking.getBooker().getId());
+    public static OutcomingItemDto toOutputItemDto(Item item, BookingDtoForItem lastBooking, BookingDtoForItem nextBooking,
+                                                   List<CommentDto> comments, Integer commentsLimit) {
+        return new OutcomingItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                lastBooking, nextBooking, latest(comments, commentsLimit), comments.size());
+    }
+
+    public static ItemDetails toItemDetails(Item item, List<CommentDto> comments) {
+        return new ItemDetails(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), List.copyOf(comments));
+    }
+
+    public static OutcomingItemDto toOutputItemDto(ItemDetails details, BookingDtoForItem lastBooking,
+                                                   BookingDtoForItem nextBooking, Integer commentsLimit) {
+        List<CommentDto> comments = details.getComments();
+        return new OutcomingItemDto(details.getId(), details.getName(), details.getDescription(), details.getAvailable(),
+                lastBooking, nextBooking, latest(comments, commentsLimit), comments.size());
+    }
+
+    /**
+     * Comments come ordered by creation time and id, so the latest ones are at the tail. A null limit keeps them all.
+     */
+    private static List<CommentDto> latest(List<CommentDto> comments, Integer limit) {
+        if (limit == null || comments.size() <= limit) {
+            return comments;
         }
-        List<CommentDto> commentDtos = CommentMapper.toCommentDtoAll(item.getComments());
-        return new OutcomingItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), last, next, commentDtos);
+        return comments.subList(comments.size() - limit, comments.size());
     }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+public interface ItemTextView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+}
@@ -14,4 +14,5 @@ public class OutcomingItemDto {
     BookingDtoForItem lastBooking;
     BookingDtoForItem nextBooking;
     List<CommentDto> comments;
+    Integer commentsCount;
 }
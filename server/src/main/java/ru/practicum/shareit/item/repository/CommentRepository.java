@@ -1,7 +1,35 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 public interface CommentRepository extends CrudRepository<Comment, Long> {
+    String SELECT_VIEW = "select c.item.id as itemId, c.id as id, c.text as text, a.name as authorName, c.createdAt as createdAt " +
+            "from Comment c join c.author a ";
+    String NEWEST_FIRST = " order by c.createdAt desc, c.id desc";
+
+    @Query(SELECT_VIEW +
+            "where c.item.id in :itemIds " +
+            "order by c.createdAt, c.id")
+    List<CommentView> findViewsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query(SELECT_VIEW +
+            "where c.item.id = :itemId" + NEWEST_FIRST)
+    List<CommentView> findNewestViewsByItemId(@Param("itemId") long itemId, Pageable pageable);
+
+    @Query(SELECT_VIEW +
+            "where c.item.id = :itemId " +
+            "and (c.createdAt < :cursorCreatedAt or (c.createdAt = :cursorCreatedAt and c.id < :cursorId))" + NEWEST_FIRST)
+    List<CommentView> findNewestViewsByItemIdAfterCursor(@Param("itemId") long itemId,
+                                                         @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                         @Param("cursorId") long cursorId,
+                                                         Pageable pageable);
 }
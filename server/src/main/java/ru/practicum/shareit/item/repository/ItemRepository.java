@@ -1,22 +1,31 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
+import ru.practicum.shareit.item.dto.ItemTextView;
 import ru.practicum.shareit.item.model.Item;
 
-import java.util.Collection;
 import java.util.List;
 
-public interface ItemRepository extends CrudRepository<Item, Long> {
-    @Query("select i.id from Item i where i.owner.id = ?1")
-    Collection<Long> findIdsByOwnerId(long ownerId);
-
+public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query(" select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
-            "and i.available is true ")
+            "and i.available is true " +
+            "order by i.id")
     List<Item> search(String text, Pageable pageable);
 
+    @Query(" select i from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available is true " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<Item> searchByRelevance(String text, Pageable pageable);
+
     List<Item> findByOwnerIdOrderByIdAsc(long userId, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description from Item i " +
+            "where i.available is true ")
+    List<ItemTextView> findAllAvailableTexts();
 }
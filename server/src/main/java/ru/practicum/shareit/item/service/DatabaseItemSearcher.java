@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Runs the LIKE query in the database. On PostgreSQL it is served by the trigram GIN indexes
+ * on upper(name) and upper(description); on H2 it stays a scan. Relevance here only puts
+ * name matches before description-only matches.
+ */
+@Component
+@ConditionalOnProperty(name = ItemSearcher.MODE_PROPERTY, havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseItemSearcher implements ItemSearcher {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.search(text, pageable);
+    }
+
+    @Override
+    public List<Item> searchByRelevance(String text, Pageable pageable) {
+        return itemRepository.searchByRelevance(text, pageable);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = ItemSearcher.MODE_PROPERTY, havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class IndexItemSearcher implements ItemSearcher {
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return findInOrder(itemSearchIndex.search(text, (int) pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    @Override
+    public List<Item> searchByRelevance(String text, Pageable pageable) {
+        return findInOrder(itemSearchIndex.searchByRelevance(text, (int) pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    @Override
+    public void itemSaved(Item item) {
+        TransactionUtil.afterCommit(() -> itemSearchIndex.index(item));
+    }
+
+    private List<Item> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        return itemRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(item -> positions.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comments with author names for a page of items in one query, instead of a lazy
+ * collection load per item and an author load per comment.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemCommentsLoader {
+    private final CommentRepository commentRepository;
+
+    public List<CommentDto> forItem(long itemId) {
+        return forItems(List.of(itemId)).getOrDefault(itemId, Collections.emptyList());
+    }
+
+    /**
+     * Items without comments are absent from the result.
+     */
+    public Map<Long, List<CommentDto>> forItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<CommentDto>> commentsByItemId = new HashMap<>();
+        for (CommentView view : commentRepository.findViewsByItemIdIn(itemIds)) {
+            commentsByItemId.computeIfAbsent(view.getItemId(), id -> new ArrayList<>()).add(CommentMapper.toCommentDto(view));
+        }
+        return commentsByItemId;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDetails;
+import ru.practicum.shareit.util.ExpiringLruCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Owner-independent item details. Entries are dropped when the item or its comments change
+ * and otherwise live for the configured time, which also bounds how long a renamed
+ * comment author is shown under the old name.
+ */
+@Component
+public class ItemDetailsCache extends ExpiringLruCache<Long, ItemDetails> {
+    private final Duration timeToLive;
+
+    public ItemDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${shareit.item.details-cache.max-size}") int maxSize,
+                            @Value("${shareit.item.details-cache.ttl}") Duration timeToLive) {
+        super(meterRegistry, "shareit.item.details-cache", "Items with cached details", maxSize);
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Время жизни записей кэша должно быть положительным: " + timeToLive);
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    public ItemDetails get(long itemId) {
+        return get(itemId, LocalDateTime.now());
+    }
+
+    public void put(long itemId, ItemDetails details, long readVersion) {
+        putIfUnchanged(itemId, details, LocalDateTime.now().plus(timeToLive), readVersion);
+    }
+}
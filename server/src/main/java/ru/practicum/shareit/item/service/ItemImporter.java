@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Creates items from a JSON array or an NDJSON stream without holding the whole upload in memory.
+ * Valid rows are saved in chunks of {@code shareit.item.import.chunk-size}, which Hibernate sends as
+ * JDBC batches, each chunk in a transaction of its own: a chunk that fails to flush or commit is
+ * reported row by row and does not undo the others.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    private static final String USER_NOT_FOUND_MSG = "Пользователь с id = %d не найден";
+    private static final String EMPTY_ROW_MSG = "Пустая строка";
+    private static final String BLANK_NAME_MSG = "Название вещи не может быть пустым";
+    private static final String BLANK_DESCRIPTION_MSG = "Описание вещи не может быть пустым";
+    private static final String NO_AVAILABLE_MSG = "Не указана доступность вещи";
+    private static final String MALFORMED_ROW_MSG = "Некорректная строка: %s";
+    private static final String MALFORMED_INPUT_MSG = "Некорректный JSON, импорт остановлен: %s";
+    private static final String CHUNK_FAILED_MSG = "Не удалось сохранить пакет: %s";
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final Outbox outbox;
+    private final ItemSearcher itemSearcher;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectReader reader;
+    private final int chunkSize;
+
+    public ItemImporter(ItemRepository itemRepository,
+                        UserRepository userRepository,
+                        Outbox outbox,
+                        ItemSearcher itemSearcher,
+                        ItemSearchCache itemSearchCache,
+                        ItemSuggestIndex itemSuggestIndex,
+                        TransactionTemplate transactionTemplate,
+                        EntityManager entityManager,
+                        ObjectMapper objectMapper,
+                        @Value("${shareit.item.import.chunk-size}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Размер пакета импорта вещей должен быть положительным");
+        }
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.outbox = outbox;
+        this.itemSearcher = itemSearcher;
+        this.itemSearchCache = itemSearchCache;
+        this.itemSuggestIndex = itemSuggestIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.reader = objectMapper.readerFor(ItemDto.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Rows are numbered from 1 in the order they come. A row that cannot be bound to an item is
+     * reported and skipped; broken JSON stops the import after the rows read before it.
+     */
+    public ItemImportResultDto importItems(long ownerId, InputStream items) {
+        User owner = userRepository.findById(ownerId)
+                .orElseThrow(() -> new UserNotFoundException(String.format(USER_NOT_FOUND_MSG, ownerId)));
+        long startNanos = System.nanoTime();
+        List<ItemImportRowDto> results = new ArrayList<>();
+        List<Integer> chunkRows = new ArrayList<>(chunkSize);
+        List<Item> chunk = new ArrayList<>(chunkSize);
+        int row = 1;
+        try (MappingIterator<ItemDto> rows = reader.readValues(items)) {
+            for (; rows.hasNextValue(); row++) {
+                ItemDto itemDto;
+                try {
+                    itemDto = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    results.add(invalid(row, String.format(MALFORMED_ROW_MSG, e.getOriginalMessage())));
+                    continue;
+                }
+                String error = validate(itemDto);
+                if (error != null) {
+                    results.add(invalid(row, error));
+                    continue;
+                }
+                chunkRows.add(row);
+                Item item = ItemMapper.toItem(itemDto, owner);
+                item.setId(null);
+                chunk.add(item);
+                if (chunk.size() == chunkSize) {
+                    insertChunk(chunkRows, chunk, results);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            results.add(invalid(row, String.format(MALFORMED_INPUT_MSG, e.getOriginalMessage())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!chunk.isEmpty()) {
+                insertChunk(chunkRows, chunk, results);
+            }
+        }
+        return summarize(ownerId, results, System.nanoTime() - startNanos);
+    }
+
+    private void insertChunk(List<Integer> chunkRows, List<Item> chunk, List<ItemImportRowDto> results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                itemRepository.saveAll(chunk);
+                outbox.recordAll(AggregateType.ITEM,
+                        chunk.stream().map(Item::getId).collect(Collectors.toList()), ChangeType.CREATED);
+                chunk.forEach(itemSearcher::itemSaved);
+                itemSearchCache.itemsCreated(chunk);
+                itemSuggestIndex.itemsCreated(chunk);
+                // With an entity manager open for the whole request, imported items would pile up in it.
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(new ItemImportRowDto(chunkRows.get(i), ItemImportRowDto.Outcome.CREATED,
+                        chunk.get(i).getId(), null));
+            }
+        } catch (DataAccessException | TransactionException | PersistenceException e) {
+            log.warn("Не удалось сохранить пакет из {} вещей", chunk.size(), e);
+            String error = String.format(CHUNK_FAILED_MSG, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            chunkRows.forEach(row -> results.add(new ItemImportRowDto(row, ItemImportRowDto.Outcome.FAILED, null, error)));
+        }
+        chunkRows.clear();
+        chunk.clear();
+    }
+
+    private static ItemImportResultDto summarize(long ownerId, List<ItemImportRowDto> results, long elapsedNanos) {
+        results.sort(Comparator.comparingInt(ItemImportRowDto::getRow));
+        int created = (int) results.stream()
+                .filter(result -> result.getOutcome() == ItemImportRowDto.Outcome.CREATED)
+                .count();
+        long durationMillis = elapsedNanos / 1_000_000;
+        long itemsPerSecond = created * 1_000_000_000L / Math.max(elapsedNanos, 1);
+        log.info("Импортировано {} вещей пользователя с id = {}, отклонено строк {}, за {} мс ({} вещей/с)",
+                created, ownerId, results.size() - created, durationMillis, itemsPerSecond);
+        return new ItemImportResultDto(created, results.size() - created, durationMillis, itemsPerSecond, results);
+    }
+
+    private static String validate(ItemDto itemDto) {
+        if (itemDto == null) {
+            return EMPTY_ROW_MSG;
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return BLANK_NAME_MSG;
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return BLANK_DESCRIPTION_MSG;
+        }
+        if (itemDto.getAvailable() == null) {
+            return NO_AVAILABLE_MSG;
+        }
+        return null;
+    }
+
+    private static ItemImportRowDto invalid(int row, String error) {
+        return new ItemImportRowDto(row, ItemImportRowDto.Outcome.INVALID, null, error);
+    }
+}
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least recently used search result pages, bounded by their estimated size in memory.
+ * When an item changes, only the pages of queries that its old or new text contains are dropped:
+ * results of any other query could not include it either before or after the change.
+ */
+@Component
+public class ItemSearchCache {
+    private static final String METRIC_PREFIX = "shareit.item.search-cache";
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+    private static final long ITEM_OVERHEAD_BYTES = 112;
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter invalidationCounter;
+    private long usedBytes;
+    private long version;
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.item.search-cache.max-size}") DataSize maxSize) {
+        if (maxSize.isNegative()) {
+            throw new IllegalArgumentException("Размер кэша не может быть отрицательным: " + maxSize);
+        }
+        this.maxBytes = maxSize.toBytes();
+        this.hitCounter = meterRegistry.counter(METRIC_PREFIX + ".requests", "result", "hit");
+        this.missCounter = meterRegistry.counter(METRIC_PREFIX + ".requests", "result", "miss");
+        this.sizeEvictionCounter = meterRegistry.counter(METRIC_PREFIX + ".evictions", "cause", "size");
+        this.invalidationCounter = meterRegistry.counter(METRIC_PREFIX + ".evictions", "cause", "invalidated");
+        Gauge.builder(METRIC_PREFIX + ".size", this, ItemSearchCache::usedBytes)
+                .description("Estimated size of cached search results")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public static Key key(String text, SearchSort sort, long offset, int size) {
+        return new Key(fold(text), sort, offset, size);
+    }
+
+    /**
+     * Version to pass to {@link #put}, taken before the results are read.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized List<ItemDto> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry.getItems();
+    }
+
+    /**
+     * Skips the results if anything was invalidated after {@code readVersion}:
+     * they may have been read before the change was committed.
+     */
+    public synchronized void put(Key key, List<ItemDto> items, long readVersion) {
+        if (readVersion != version) {
+            return;
+        }
+        Entry entry = new Entry(List.copyOf(items), weigh(key, items));
+        if (entry.getBytes() > maxBytes) {
+            return;
+        }
+        Entry replaced = entries.put(key, entry);
+        if (replaced != null) {
+            usedBytes -= replaced.getBytes();
+        }
+        usedBytes += entry.getBytes();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes) {
+            usedBytes -= eldest.next().getBytes();
+            eldest.remove();
+            sizeEvictionCounter.increment();
+        }
+    }
+
+    /**
+     * Drops pages affected by the change of an item right away and once more after commit.
+     *
+     * @param before the item as it was, {@code null} for a new item
+     */
+    public void itemChanged(Item before, Item after) {
+        String[] texts = {searchableText(before), searchableText(after)};
+        invalidateMatching(texts);
+        TransactionUtil.afterCommit(() -> invalidateMatching(texts));
+    }
+
+    /**
+     * Same as {@link #itemChanged} for each of the new items, in one pass over the cached pages.
+     */
+    public void itemsCreated(Collection<Item> items) {
+        String[] texts = items.stream()
+                .map(ItemSearchCache::searchableText)
+                .filter(Objects::nonNull)
+                .toArray(String[]::new);
+        if (texts.length == 0) {
+            return;
+        }
+        invalidateMatching(texts);
+        TransactionUtil.afterCommit(() -> invalidateMatching(texts));
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private synchronized void invalidateMatching(String[] texts) {
+        version++;
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (matches(texts, entry.getKey().getText())) {
+                usedBytes -= entry.getValue().getBytes();
+                iterator.remove();
+                invalidationCounter.increment();
+            }
+        }
+    }
+
+    private static boolean matches(String[] texts, String query) {
+        for (String text : texts) {
+            if (text != null && text.contains(query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Name and description joined by a character a query cannot contain, or {@code null}
+     * when the item is not searchable at all.
+     */
+    private static String searchableText(Item item) {
+        if (item == null || !Boolean.TRUE.equals(item.getAvailable())) {
+            return null;
+        }
+        return fold(item.getName()) + '\0' + fold(item.getDescription());
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static long weigh(Key key, List<ItemDto> items) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.getText().length();
+        for (ItemDto item : items) {
+            bytes += ITEM_OVERHEAD_BYTES + 2L * (length(item.getName()) + length(item.getDescription()));
+        }
+        return bytes;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Key {
+        private final String text;
+        private final SearchSort sort;
+        private final long offset;
+        private final int size;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final List<ItemDto> items;
+        private final long bytes;
+    }
+}
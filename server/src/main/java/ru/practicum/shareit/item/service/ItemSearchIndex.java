@@ -0,0 +1,282 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over upper-cased names and descriptions of available items.
+ * A query is answered like {@code upper(name) like upper('%text%') or upper(description) like ...}:
+ * posting lists of its trigrams are intersected and every candidate is checked for the substring.
+ * Queries shorter than a trigram are checked against every indexed item.
+ * <p>
+ * Ranked search scores matches with BM25 over the two fields, the whole query being the only term,
+ * so its idf is the same for every match and drops out; name hits weigh {@value #NAME_WEIGHT} times
+ * as much as description hits. Only the best {@code offset + limit} matches are kept, in a bounded heap.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = ItemSearcher.MODE_PROPERTY, havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final Comparator<ScoredId> WORST_FIRST = Comparator.comparingDouble(ScoredId::getScore)
+            .thenComparing(ScoredId::getId, Comparator.reverseOrder());
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<Integer, IndexedItem> items = new TreeMap<>();
+    private Map<Long, PostingList> postings = new HashMap<>();
+    private long totalNameLength;
+    private long totalDescriptionLength;
+
+    /**
+     * Runs before the web server accepts requests. Holding the write lock for the whole load means that
+     * items committed meanwhile are applied after the load instead of being overwritten by it.
+     */
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            items = new TreeMap<>();
+            postings = new HashMap<>();
+            totalNameLength = 0;
+            totalDescriptionLength = 0;
+            List<ItemTextView> views = itemRepository.findAllAvailableTexts();
+            for (ItemTextView view : views) {
+                add(toIntId(view.getId()), view.getName(), view.getDescription());
+            }
+            log.info("Поисковый индекс вещей построен: вещей {}, триграмм {}", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces whatever was indexed for the item; an unavailable item is only removed.
+     */
+    public void index(Item item) {
+        int id = toIntId(item.getId());
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(id, item.getName(), item.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of matching items in ascending order, {@code limit} of them after skipping {@code offset}.
+     */
+    public List<Long> search(String text, int offset, int limit) {
+        String query = fold(text);
+        List<Long> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int skipped = 0;
+            for (int id : candidates(query)) {
+                if (result.size() == limit) {
+                    break;
+                }
+                if (!items.get(id).contains(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add((long) id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Ids of matching items from the most to the least relevant, {@code limit} of them after skipping
+     * {@code offset}. Equally relevant items are ordered by id.
+     */
+    public List<Long> searchByRelevance(String text, int offset, int limit) {
+        String query = fold(text);
+        long topSize = (long) offset + limit;
+        PriorityQueue<ScoredId> top;
+        lock.readLock().lock();
+        try {
+            if (offset >= items.size()) {
+                return Collections.emptyList();
+            }
+            top = new PriorityQueue<>((int) Math.min(topSize, items.size()) + 1, WORST_FIRST);
+            double averageNameLength = average(totalNameLength);
+            double averageDescriptionLength = average(totalDescriptionLength);
+            for (int id : candidates(query)) {
+                IndexedItem item = items.get(id);
+                if (!item.contains(query)) {
+                    continue;
+                }
+                double score = NAME_WEIGHT * bm25(item.name, query, averageNameLength) +
+                        bm25(item.description, query, averageDescriptionLength);
+                top.add(new ScoredId(id, score));
+                if (top.size() > topSize) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        LinkedList<Long> ranked = new LinkedList<>();
+        while (top.size() > offset) {
+            ranked.addFirst((long) top.poll().getId());
+        }
+        return ranked;
+    }
+
+    private double average(long totalLength) {
+        return items.isEmpty() ? 1 : Math.max(1, (double) totalLength / items.size());
+    }
+
+    private static double bm25(String field, String query, double averageLength) {
+        int frequency = occurrences(field, query);
+        if (frequency == 0) {
+            return 0;
+        }
+        double lengthNorm = 1 - B + B * field.length() / averageLength;
+        return frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+    }
+
+    private static int occurrences(String text, String query) {
+        int count = 0;
+        for (int from = text.indexOf(query); from >= 0; from = text.indexOf(query, from + query.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private void add(int id, String name, String description) {
+        IndexedItem item = new IndexedItem(fold(name), fold(description));
+        items.put(id, item);
+        totalNameLength += item.name.length();
+        totalDescriptionLength += item.description.length();
+        for (long gram : item.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(id);
+        }
+    }
+
+    private void remove(int id) {
+        IndexedItem item = items.remove(id);
+        if (item == null) {
+            return;
+        }
+        totalNameLength -= item.name.length();
+        totalDescriptionLength -= item.description.length();
+        for (long gram : item.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static int toIntId(Long id) {
+        return Math.toIntExact(id);
+    }
+
+    private static long gramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    private static Set<Long> gramsOf(String text) {
+        Set<Long> grams = new TreeSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(gramAt(text, i));
+        }
+        return grams;
+    }
+
+    /**
+     * Ids that may match the query in ascending order: the shortest posting list filtered
+     * by the others, or every indexed id when the query is too short for a trigram.
+     */
+    private Iterable<Integer> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return items.keySet();
+        }
+        List<PostingList> lists = new ArrayList<>();
+        for (long gram : gramsOf(query)) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList shortest = lists.get(0);
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < shortest.size(); i++) {
+            int id = shortest.get(i);
+            if (lists.stream().skip(1).allMatch(list -> list.contains(id))) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class ScoredId {
+        private final int id;
+        private final double score;
+    }
+
+    private static class IndexedItem {
+        private final String name;
+        private final String description;
+
+        IndexedItem(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<Long> grams() {
+            Set<Long> grams = gramsOf(name);
+            grams.addAll(gramsOf(description));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Finds available items whose name or description contains the text, ignoring case, ordered by id.
+ * The implementation is chosen by {@code shareit.item.search.mode}.
+ */
+public interface ItemSearcher {
+    String MODE_PROPERTY = "shareit.item.search.mode";
+
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Same matches, the most relevant first.
+     */
+    List<Item> searchByRelevance(String text, Pageable pageable);
+
+    /**
+     * Called for every item saved in the current transaction.
+     */
+    default void itemSaved(Item item) {
+    }
+}
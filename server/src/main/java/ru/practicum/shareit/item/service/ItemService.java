@@ -1,21 +1,35 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.OutcomingItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+import ru.practicum.shareit.util.CursorPage;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
     ItemDto add(ItemDto item, Long ownerId);
 
+    ItemImportResultDto importItems(long ownerId, InputStream items);
+
     ItemDto updateById(Long itemId, ItemDto itemWithUpdates, Long userId);
 
-    OutcomingItemDto getByItemId(long itemId, long userId);
+    OutcomingItemDto getByItemId(long itemId, long userId, Integer commentsLimit);
+
+    Collection<OutcomingItemDto> getByUserId(long userId, Integer from, Integer size, Integer commentsLimit);
 
-    Collection<OutcomingItemDto> getByUserId(long userId, Integer from, Integer size);
+    Collection<ItemDto> searchInNameOrDescription(String text, Integer from, Integer size, SearchSort sort);
 
-    Collection<ItemDto> searchInNameOrDescription(String text, Integer from, Integer size);
+    List<String> suggest(String prefix, int limit);
 
     CommentDto addComment(String text, Long authorId, Long itemId);
+
+    CursorPage<CommentDto> getComments(long itemId, String cursor, Integer size);
+
+    List<TimeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 }
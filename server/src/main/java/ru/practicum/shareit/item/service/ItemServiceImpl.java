@@ -3,32 +3,40 @@ package ru.practicum.shareit.item.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.service.BookingsGetter;
-import ru.practicum.shareit.booking.service.State;
+import ru.practicum.shareit.booking.dto.CommentEligibilityView;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemAvailabilityResolver;
+import ru.practicum.shareit.booking.service.LastAndNextBookingsResolver;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.exception.UserHasNoPermissionException;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
 import ru.practicum.shareit.user.UserChecker;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetCursor;
 import ru.practicum.shareit.util.PageableUtil;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import static java.util.Comparator.comparing;
-
 @Slf4j
 @Service
 @Transactional(readOnly = true)
@@ -36,12 +44,22 @@ import static java.util.Comparator.comparing;
 public class ItemServiceImpl implements ItemService {
     private static final String USER_NOT_FOUND_MSG = "Пользователь с id = %d не найден";
     private static final String ITEM_NOT_FOUND_MSG = "Вещь с id = %d не найдена";
+    private static final String WRONG_PERIOD_MSG = "Начало периода %s должно быть раньше его конца %s";
     private static final String NO_PERMISSION_MSG = "У пользователя с id = %d нет прав на изменение вещи с id = %d";
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-    private final BookingsGetter bookingsGetter;
+    private final BookingRepository bookingRepository;
+    private final LastAndNextBookingsResolver lastAndNextBookingsResolver;
+    private final ItemAvailabilityResolver itemAvailabilityResolver;
     private final CommentRepository commentRepository;
     private final UserChecker userChecker;
+    private final Outbox outbox;
+    private final ItemSearcher itemSearcher;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemDetailsCache itemDetailsCache;
+    private final ItemCommentsLoader itemCommentsLoader;
+    private final ItemImporter itemImporter;
 
     @Override
     @Transactional
@@ -49,7 +67,21 @@ public class ItemServiceImpl implements ItemService {
         User user = userRepository.findById(ownerId)
                 .orElseThrow(() -> new UserNotFoundException(String.format(USER_NOT_FOUND_MSG, ownerId)));
         Item item = ItemMapper.toItem(itemDto, user);
-        return ItemMapper.toItemDto(userChecker.getIfExists(ownerId, () -> itemRepository.save(item)));
+        Item savedItem = userChecker.getIfExists(ownerId, () -> itemRepository.save(item));
+        outbox.record(AggregateType.ITEM, savedItem.getId(), ChangeType.CREATED);
+        itemSearcher.itemSaved(savedItem);
+        itemSearchCache.itemChanged(null, savedItem);
+        itemSuggestIndex.itemSaved(savedItem);
+        return ItemMapper.toItemDto(savedItem);
+    }
+
+    /**
+     * Runs outside of a transaction, so that every chunk of the import commits on its own.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportResultDto importItems(long ownerId, InputStream items) {
+        return itemImporter.importItems(ownerId, items);
     }
 
     @Transactional
@@ -59,9 +91,16 @@ public class ItemServiceImpl implements ItemService {
 
         checkForUserPermissionOrThrowException(ownerId, currItem);
 
+        Item itemBefore = copyOf(currItem);
         updateFromDto(currItem, itemWithUpdates);
 
-        return ItemMapper.toItemDto(itemRepository.save(currItem));
+        Item savedItem = itemRepository.save(currItem);
+        outbox.record(AggregateType.ITEM, itemId, ChangeType.UPDATED);
+        itemSearcher.itemSaved(savedItem);
+        itemSearchCache.itemChanged(itemBefore, savedItem);
+        itemSuggestIndex.itemSaved(savedItem);
+        itemDetailsCache.invalidate(itemId);
+        return ItemMapper.toItemDto(savedItem);
     }
 
     private void checkForUserPermissionOrThrowException(long ownerId, Item currItem) {
@@ -73,72 +112,118 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public OutcomingItemDto getByItemId(long itemId, long userId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new ItemNotFoundException(String.format(ITEM_NOT_FOUND_MSG, itemId)));
-        Booking lastBooking = null;
-        Booking nextBooking = null;
-        if (item.getOwner().getId().equals(userId)) {
-            lastBooking = getLastBooking(itemId);
-            nextBooking = getNextBooking(itemId);
+    public OutcomingItemDto getByItemId(long itemId, long userId, Integer commentsLimit) {
+        ItemDetails details = itemDetailsCache.get(itemId);
+        if (details == null) {
+            long version = itemDetailsCache.version();
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new ItemNotFoundException(String.format(ITEM_NOT_FOUND_MSG, itemId)));
+            details = ItemMapper.toItemDetails(item, itemCommentsLoader.forItem(itemId));
+            itemDetailsCache.put(itemId, details, version);
         }
-        return ItemMapper.toOutputItemDto(item, lastBooking, nextBooking);
-    }
-
-    private Booking getLastBooking(long itemId) {
-        return bookingsGetter.forItemOwner(List.of(itemId), State.ALL, Pageable.unpaged()).stream()
-                .filter(booking -> (!Booking.Status.REJECTED.equals(booking.getStatus())) &&
-                        booking.getStart().isBefore(LocalDateTime.now()))
-                .max(comparing(Booking::getEnd))
-                .orElse(null);
-    }
-
-    private Booking getNextBooking(long itemId) {
-        return bookingsGetter.forItemOwner(List.of(itemId), State.ALL, Pageable.unpaged()).stream()
-                .filter(booking -> (!Booking.Status.REJECTED.equals(booking.getStatus())) &&
-                        booking.getStart().isAfter(LocalDateTime.now()))
-                .min(comparing(Booking::getStart))
-                .orElse(null);
+        LastAndNextBookingDto bookings = LastAndNextBookingDto.EMPTY;
+        if (details.getOwnerId().equals(userId)) {
+            bookings = lastAndNextBookingsResolver.forItem(itemId);
+        }
+        return ItemMapper.toOutputItemDto(details, bookings.getLastBooking(), bookings.getNextBooking(), commentsLimit);
     }
 
-
     @Override
-    public Collection<OutcomingItemDto> getByUserId(long userId, Integer from, Integer size) {
+    public Collection<OutcomingItemDto> getByUserId(long userId, Integer from, Integer size, Integer commentsLimit) {
         Collection<Item> items = userChecker.getIfExists(userId,
                 () -> itemRepository.findByOwnerIdOrderByIdAsc(userId, PageRequest.of(from / size, size)));
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, LastAndNextBookingDto> bookings = lastAndNextBookingsResolver.forItems(itemIds);
+        Map<Long, List<CommentDto>> comments = itemCommentsLoader.forItems(itemIds);
         return items.stream()
-                .map(item -> ItemMapper.toOutputItemDto(item, getLastBooking(item.getId()), getNextBooking(item.getId())))
+                .map(item -> {
+                    LastAndNextBookingDto itemBookings = bookings.getOrDefault(item.getId(), LastAndNextBookingDto.EMPTY);
+                    return ItemMapper.toOutputItemDto(item, itemBookings.getLastBooking(), itemBookings.getNextBooking(),
+                            comments.getOrDefault(item.getId(), Collections.emptyList()), commentsLimit);
+                })
                 .collect(Collectors.toList());
     }
 
     @Override
-    public Collection<ItemDto> searchInNameOrDescription(String text, Integer from, Integer size) {
-        return text.isBlank() ?
-                Collections.emptyList() :
-                ItemMapper.toItemDtoAll(itemRepository.search(text, PageableUtil.getPageRequest(from, size)));
+    public Collection<ItemDto> searchInNameOrDescription(String text, Integer from, Integer size, SearchSort sort) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        PageRequest pageRequest = PageableUtil.getPageRequest(from, size);
+        ItemSearchCache.Key key = ItemSearchCache.key(text, sort, pageRequest.getOffset(), pageRequest.getPageSize());
+        List<ItemDto> cached = itemSearchCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = itemSearchCache.version();
+        List<ItemDto> items = ItemMapper.toItemDtoAll(sort == SearchSort.RELEVANCE ?
+                itemSearcher.searchByRelevance(text, pageRequest) :
+                itemSearcher.search(text, pageRequest));
+        itemSearchCache.put(key, items, version);
+        return items;
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return itemSuggestIndex.suggest(prefix, limit);
     }
 
     @Override
     @Transactional
     public CommentDto addComment(String text, Long authorId, Long itemId) {
-        User user = userRepository.findById(authorId)
+        CommentEligibilityView eligibility = bookingRepository.findCommentEligibility(authorId, itemId, LocalDateTime.now())
                 .orElseThrow(() -> new UserNotFoundException(String.format(USER_NOT_FOUND_MSG, authorId)));
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new ItemNotFoundException(String.format(ITEM_NOT_FOUND_MSG, itemId)));
-        Collection<Booking> bookings = bookingsGetter.forUser(authorId, State.PAST, Pageable.unpaged());
+        if (!eligibility.getItemExists()) {
+            throw new ItemNotFoundException(String.format(ITEM_NOT_FOUND_MSG, itemId));
+        }
+        if (!eligibility.getBookedInPast()) {
+            throw new UserHasNoPermissionException("Пользователь не может оставлять комментарий");
+        }
 
-        ifNotBookingAuthorThrowNoPermissionException(itemId, bookings);
+        Comment comment = CommentMapper.toComment(text,
+                userRepository.getReferenceById(authorId),
+                itemRepository.getReferenceById(itemId));
+        Comment savedComment = commentRepository.save(comment);
+        outbox.record(AggregateType.ITEM, itemId, ChangeType.UPDATED);
+        itemDetailsCache.invalidate(itemId);
+        return CommentMapper.toCommentDto(savedComment, eligibility.getAuthorName());
+    }
 
-        return CommentMapper.toCommentDto(commentRepository.save(CommentMapper.toComment(text, user, item)));
+    @Override
+    public CursorPage<CommentDto> getComments(long itemId, String cursor, Integer size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(String.format(ITEM_NOT_FOUND_MSG, itemId));
+        }
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<CommentView> comments = cursor == null || cursor.isBlank() ?
+                commentRepository.findNewestViewsByItemId(itemId, limit) :
+                findNewestCommentsAfter(itemId, KeysetCursor.decode(cursor), limit);
+        return CursorPage.of(comments, size, comment -> new KeysetCursor(comment.getCreatedAt(), comment.getId()))
+                .map(CommentMapper::toCommentDto);
     }
 
-    private void ifNotBookingAuthorThrowNoPermissionException(Long itemId, Collection<Booking> bookings) {
-        boolean isBookingAuthor = bookings.stream()
-                .anyMatch(b -> b.getItem().getId().equals(itemId) &&
-                        !b.getStatus().equals(Booking.Status.REJECTED));
-        if (!isBookingAuthor) {
-            throw new UserHasNoPermissionException("Пользователь не может оставлять комментарий");
+    private List<CommentView> findNewestCommentsAfter(long itemId, KeysetCursor cursor, PageRequest limit) {
+        return commentRepository.findNewestViewsByItemIdAfterCursor(itemId, cursor.getTimestamp(), cursor.getId(), limit);
+    }
+
+    @Override
+    public List<TimeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException(String.format(WRONG_PERIOD_MSG, from, to));
+        }
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException(String.format(ITEM_NOT_FOUND_MSG, itemId)));
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return Collections.emptyList();
         }
+        return itemAvailabilityResolver.freeSlots(itemId, from, to);
+    }
+
+    private static Item copyOf(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner(), item.getRequestId(), item.getComments());
     }
 
     private void updateFromDto(Item item, ItemDto itemDto) {
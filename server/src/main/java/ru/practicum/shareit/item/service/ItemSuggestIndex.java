@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionUtil;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Sorted terms of available items for prefix suggestions: whole names and single words
+ * of names and descriptions, in lower case. Each term counts the items it comes from,
+ * so it disappears together with the last of them; the terms of every item are kept so that
+ * a saved item replaces exactly what was indexed for it. A prefix lookup is a range of the
+ * sorted map, which costs O(log n + limit) no matter how many terms share the prefix.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSuggestIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, Integer> itemCounts = new TreeMap<>();
+    private Map<Long, Set<String>> termsByItemId = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            itemCounts = new TreeMap<>();
+            termsByItemId = new HashMap<>();
+            for (ItemTextView view : itemRepository.findAllAvailableTexts()) {
+                replace(view.getId(), termsOf(view.getName(), view.getDescription()));
+            }
+            log.info("Индекс подсказок вещей построен: терминов {}", itemCounts.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the item's terms with those of the saved state after commit.
+     */
+    public void itemSaved(Item item) {
+        Long itemId = item.getId();
+        Set<String> terms = termsOf(item);
+        TransactionUtil.afterCommit(() -> index(itemId, terms));
+    }
+
+    /**
+     * Adds the terms of the new items after commit, taking the lock once for all of them.
+     */
+    public void itemsCreated(Collection<Item> items) {
+        Map<Long, Set<String>> added = new HashMap<>();
+        for (Item item : items) {
+            Set<String> terms = termsOf(item);
+            if (!terms.isEmpty()) {
+                added.put(item.getId(), terms);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+        TransactionUtil.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                added.forEach(this::replace);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String from = normalize(prefix);
+        if (from.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> suggestions = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            for (String term : itemCounts.tailMap(from, true).keySet()) {
+                if (suggestions.size() == limit || !term.startsWith(from)) {
+                    break;
+                }
+                suggestions.add(term);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    private void index(Long itemId, Set<String> terms) {
+        lock.writeLock().lock();
+        try {
+            replace(itemId, terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(Long itemId, Set<String> terms) {
+        Set<String> previous = terms.isEmpty() ? termsByItemId.remove(itemId) : termsByItemId.put(itemId, terms);
+        if (previous != null) {
+            previous.forEach(term -> itemCounts.computeIfPresent(term, (key, count) -> count == 1 ? null : count - 1));
+        }
+        terms.forEach(term -> itemCounts.merge(term, 1, Integer::sum));
+    }
+
+    private static Set<String> termsOf(Item item) {
+        if (item == null || !Boolean.TRUE.equals(item.getAvailable())) {
+            return new HashSet<>();
+        }
+        return termsOf(item.getName(), item.getDescription());
+    }
+
+    private static Set<String> termsOf(String name, String description) {
+        Set<String> terms = new HashSet<>();
+        String normalizedName = normalize(name);
+        addTerm(terms, normalizedName);
+        for (String text : new String[]{normalizedName, normalize(description)}) {
+            for (String word : WORD_SEPARATOR.split(text)) {
+                addTerm(terms, word);
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(Set<String> terms, String term) {
+        if (term.length() >= MIN_TERM_LENGTH) {
+            terms.add(term);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : SPACES.matcher(text.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of item ids backed by a primitive array. Ids are mostly appended,
+ * because new items get increasing ids, so inserts in the middle are rare.
+ */
+class PostingList {
+    private static final int INITIAL_CAPACITY = 4;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    void add(int id) {
+        if (size > 0 && ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        if (size < ids.length / 4 && ids.length > INITIAL_CAPACITY) {
+            ids = Arrays.copyOf(ids, Math.max(INITIAL_CAPACITY, ids.length / 2));
+        }
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.item.service;
+
+public enum SearchSort {
+    ID, RELEVANCE
+}
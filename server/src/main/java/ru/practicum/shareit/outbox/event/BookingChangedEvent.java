@@ -0,0 +1,13 @@
+package ru.practicum.shareit.outbox.event;
+
+import lombok.ToString;
+import ru.practicum.shareit.outbox.model.ChangeType;
+
+import java.time.LocalDateTime;
+
+@ToString(callSuper = true)
+public class BookingChangedEvent extends ChangeEvent {
+    public BookingChangedEvent(Long bookingId, ChangeType changeType, LocalDateTime occurredAt) {
+        super(bookingId, changeType, occurredAt);
+    }
+}
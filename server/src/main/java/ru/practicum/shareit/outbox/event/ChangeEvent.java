@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox.event;
+
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.model.OutboxMessage;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+public abstract class ChangeEvent {
+    private final Long aggregateId;
+    private final ChangeType changeType;
+    private final LocalDateTime occurredAt;
+
+    protected ChangeEvent(Long aggregateId, ChangeType changeType, LocalDateTime occurredAt) {
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+        this.occurredAt = occurredAt;
+    }
+
+    public static ChangeEvent of(OutboxMessage message) {
+        Long id = message.getAggregateId();
+        ChangeType changeType = message.getChangeType();
+        LocalDateTime occurredAt = message.getCreatedAt();
+        switch (message.getAggregateType()) {
+            case BOOKING:
+                return new BookingChangedEvent(id, changeType, occurredAt);
+            case ITEM:
+                return new ItemChangedEvent(id, changeType, occurredAt);
+            case USER:
+                return new UserChangedEvent(id, changeType, occurredAt);
+            default:
+                throw new IllegalArgumentException("Неизвестный тип агрегата: " + message.getAggregateType());
+        }
+    }
+}
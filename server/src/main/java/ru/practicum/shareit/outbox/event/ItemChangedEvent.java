@@ -0,0 +1,13 @@
+package ru.practicum.shareit.outbox.event;
+
+import lombok.ToString;
+import ru.practicum.shareit.outbox.model.ChangeType;
+
+import java.time.LocalDateTime;
+
+@ToString(callSuper = true)
+public class ItemChangedEvent extends ChangeEvent {
+    public ItemChangedEvent(Long itemId, ChangeType changeType, LocalDateTime occurredAt) {
+        super(itemId, changeType, occurredAt);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.outbox.event;
+
+import lombok.ToString;
+import ru.practicum.shareit.outbox.model.ChangeType;
+
+import java.time.LocalDateTime;
+
+@ToString(callSuper = true)
+public class UserChangedEvent extends ChangeEvent {
+    public UserChangedEvent(Long userId, ChangeType changeType, LocalDateTime occurredAt) {
+        super(userId, changeType, occurredAt);
+    }
+}
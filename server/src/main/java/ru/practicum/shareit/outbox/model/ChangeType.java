@@ -0,0 +1,5 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "outbox")
+@NoArgsConstructor
+public class OutboxMessage {
+    /**
+     * Assigned by the database on insert rather than taken from a pooled sequence: ids preallocated
+     * by a session would not follow the order in which messages are written, see {@link ru.practicum.shareit.outbox.service.Outbox#record}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, updatable = false)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, updatable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, updatable = false)
+    private ChangeType changeType;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public OutboxMessage(AggregateType aggregateType, Long aggregateId, ChangeType changeType) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.changeType = changeType;
+    }
+}
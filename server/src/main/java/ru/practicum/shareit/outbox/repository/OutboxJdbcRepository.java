@@ -0,0 +1,44 @@
+package ru.practicum.shareit.outbox.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox (aggregate_type, aggregate_id, change_type, created_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sends the inserts as one JDBC batch. The database assigns the ids in the order of {@code aggregateIds}.
+     */
+    public void insertAll(AggregateType aggregateType, List<Long> aggregateIds, ChangeType changeType) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, aggregateType.name());
+                ps.setLong(2, aggregateIds.get(i));
+                ps.setString(3, changeType.name());
+                ps.setTimestamp(4, createdAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return aggregateIds.size();
+            }
+        });
+    }
+}
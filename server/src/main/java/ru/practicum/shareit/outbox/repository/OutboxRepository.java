@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.outbox.model.OutboxMessage;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+    List<OutboxMessage> findAllByOrderByIdAsc(Pageable pageable);
+
+    Optional<OutboxMessage> findFirstByOrderByIdAsc();
+}
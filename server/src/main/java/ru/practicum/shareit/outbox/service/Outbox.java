@@ -0,0 +1,44 @@
+package ru.practicum.shareit.outbox.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.model.OutboxMessage;
+import ru.practicum.shareit.outbox.repository.OutboxJdbcRepository;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+@Component
+@RequiredArgsConstructor
+public class Outbox {
+    private final OutboxRepository outboxRepository;
+    private final OutboxJdbcRepository outboxJdbcRepository;
+
+    /**
+     * Records the change in the transaction that makes it. Pending changes are flushed first, so the
+     * aggregate row is locked before the message gets its id and messages of one aggregate are numbered
+     * in the order their transactions commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AggregateType aggregateType, Long aggregateId, ChangeType changeType) {
+        outboxRepository.flush();
+        outboxRepository.save(new OutboxMessage(aggregateType, aggregateId, changeType));
+    }
+
+    /**
+     * Writes the messages in one JDBC batch: Hibernate inserts entities with identity ids one statement at a time.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(AggregateType aggregateType, Collection<Long> aggregateIds, ChangeType changeType) {
+        if (aggregateIds.isEmpty()) {
+            return;
+        }
+        outboxRepository.flush();
+        outboxJdbcRepository.insertAll(aggregateType, new ArrayList<>(aggregateIds), changeType);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.event.ChangeEvent;
+import ru.practicum.shareit.outbox.model.OutboxMessage;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit.outbox.batch-size}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.publishedCounter = meterRegistry.counter("shareit.outbox.published");
+        this.failedCounter = meterRegistry.counter("shareit.outbox.failed");
+        Gauge.builder("shareit.outbox.lag", this, OutboxRelay::lagSeconds)
+                .description("Age of the oldest event not yet published")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval}")
+    public void relay() {
+        List<OutboxMessage> batch;
+        boolean delivered;
+        do {
+            batch = outboxRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+            delivered = publish(batch);
+        } while (delivered && batch.size() == batchSize);
+        oldestPending.set(outboxRepository.findFirstByOrderByIdAsc()
+                .map(OutboxMessage::getCreatedAt)
+                .orElse(null));
+    }
+
+    /**
+     * Publishes the batch in id order and deletes what was delivered. After a failed message the later
+     * messages of the same aggregate stay in the outbox too, so they are retried on the next poll in order.
+     */
+    private boolean publish(List<OutboxMessage> batch) {
+        Set<String> failedAggregates = new HashSet<>();
+        List<Long> deliveredIds = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            String aggregate = message.getAggregateType() + ":" + message.getAggregateId();
+            if (failedAggregates.contains(aggregate)) {
+                continue;
+            }
+            try {
+                eventPublisher.publishEvent(ChangeEvent.of(message));
+                deliveredIds.add(message.getId());
+            } catch (RuntimeException e) {
+                failedAggregates.add(aggregate);
+                failedCounter.increment();
+                log.warn("Не удалось опубликовать событие с id = {}: {}", message.getId(), e.getMessage());
+            }
+        }
+        if (!deliveredIds.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(deliveredIds);
+            publishedCounter.increment(deliveredIds.size());
+        }
+        return deliveredIds.size() == batch.size();
+    }
+
+    double lagSeconds() {
+        LocalDateTime oldest = oldestPending.get();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+}
@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
@@ -21,11 +24,14 @@ public class UserServiceImpl implements UserService {
     private static final String USER_NOT_FOUND_MSG = "Пользователь с id = %d не найден";
     private static final String EMAIL_EXISTS_MSG = "Пользователь с email = %s уже существует";
     private final UserRepository userRepository;
+    private final Outbox outbox;
 
     @Override
     @Transactional
     public UserDto add(UserDto userDto) {
-        return UserMapper.toUserDto(userRepository.save(UserMapper.toUser(userDto)));
+        User savedUser = userRepository.save(UserMapper.toUser(userDto));
+        outbox.record(AggregateType.USER, savedUser.getId(), ChangeType.CREATED);
+        return UserMapper.toUserDto(savedUser);
     }
 
     @Override
@@ -40,6 +46,7 @@ public class UserServiceImpl implements UserService {
         updateFromDto(currUser, patchedUser);
 
         userRepository.save(currUser);
+        outbox.record(AggregateType.USER, userId, ChangeType.UPDATED);
         return UserMapper.toUserDto(currUser);
     }
 
@@ -68,6 +75,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteById(long userId) {
         userRepository.deleteById(userId);
+        outbox.record(AggregateType.USER, userId, ChangeType.DELETED);
     }
 
     private void updateFromDto(User userToUpdate, User userWithUpdates) {
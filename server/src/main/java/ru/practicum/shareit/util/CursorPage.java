@@ -0,0 +1,29 @@
+package ru.practicum.shareit.util;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Value
+public class CursorPage<T> {
+    List<T> items;
+    String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code size + 1}:
+     * the extra row only signals that there is a next page and is dropped.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used entries, each valid until its own expiry instant, with hit/miss,
+ * eviction and size metrics under the given prefix.
+ */
+public class ExpiringLruCache<K, V> {
+    private final int maxSize;
+    private final Map<K, Entry<V>> entries;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter expiryEvictionCounter;
+    private final Counter invalidationCounter;
+    private long version;
+
+    protected ExpiringLruCache(MeterRegistry meterRegistry, String metricPrefix, String description, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringLruCache.this.maxSize) {
+                    sizeEvictionCounter.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hitCounter = meterRegistry.counter(metricPrefix + ".requests", "result", "hit");
+        this.missCounter = meterRegistry.counter(metricPrefix + ".requests", "result", "miss");
+        this.sizeEvictionCounter = meterRegistry.counter(metricPrefix + ".evictions", "cause", "size");
+        this.expiryEvictionCounter = meterRegistry.counter(metricPrefix + ".evictions", "cause", "expired");
+        this.invalidationCounter = meterRegistry.counter(metricPrefix + ".evictions", "cause", "invalidated");
+        Gauge.builder(metricPrefix + ".size", this, ExpiringLruCache::size)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached value or {@code null} if there is none or it has expired by {@code now}.
+     */
+    public synchronized V get(K key, LocalDateTime now) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.isExpired(now)) {
+            entries.remove(key);
+            expiryEvictionCounter.increment();
+            entry = null;
+        }
+        if (entry == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return entry.getValue();
+    }
+
+    /**
+     * @param expiresAt first instant the value is no longer valid, {@code null} if it does not expire
+     */
+    public synchronized void put(K key, V value, LocalDateTime expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Version to pass to {@link #putIfUnchanged}, taken before the value is read.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Skips the value if anything was invalidated after {@code readVersion}:
+     * it may have been read before the change was committed.
+     */
+    public synchronized void putIfUnchanged(K key, V value, LocalDateTime expiresAt, long readVersion) {
+        if (readVersion == version) {
+            put(key, value, expiresAt);
+        }
+    }
+
+    /**
+     * Drops the value right away and once more after commit, so that a reader which
+     * repopulated it from the not yet committed state does not keep it.
+     */
+    public void invalidate(K key) {
+        remove(key);
+        TransactionUtil.afterCommit(() -> remove(key));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void remove(K key) {
+        version++;
+        if (entries.remove(key) != null) {
+            invalidationCounter.increment();
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Entry<V> {
+        private final V value;
+        private final LocalDateTime expiresAt;
+
+        boolean isExpired(LocalDateTime now) {
+            return expiresAt != null && !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page ordered by (timestamp, id).
+ * Clients receive it as an opaque url-safe string and send it back unchanged.
+ */
+@Value
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR_MSG = "Некорректный курсор: %s";
+
+    LocalDateTime timestamp;
+    Long id;
+
+    public String encode() {
+        String raw = timestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, Math.max(separatorIndex, 0))),
+                    Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(String.format(INVALID_CURSOR_MSG, cursor), e);
+        }
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.data.domain.Sort;
 
 @UtilityClass
 public class PageableUtil {
-    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start");
+    private static final Sort SORT_BY_START = Sort.by(Sort.Direction.DESC, "start", "id");
 
     public PageRequest getPageRequestSortByStart(Integer from, Integer size) {
         return PageRequest.of(from / size, size, SORT_BY_START);
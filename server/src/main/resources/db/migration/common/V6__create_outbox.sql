@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    aggregate_type VARCHAR(32)                             NOT NULL,
+    aggregate_id   BIGINT                                  NOT NULL,
+    change_type    VARCHAR(32)                             NOT NULL,
+    created_at     TIMESTAMP(9) WITHOUT TIME ZONE          NOT NULL,
+    CONSTRAINT pk_outbox PRIMARY KEY (id)
+);
@@ -0,0 +1,22 @@
+-- Ids come from sequences that step by the allocationSize of the entities, so that Hibernate
+-- reserves a block of ids with one call and can batch inserts. H2 only backs in-memory test
+-- databases, which are still empty here, so every sequence starts at its first block.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE users_seq START WITH 50 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE requests_seq START WITH 50 INCREMENT BY 50;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR requests_seq;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE items_seq START WITH 50 INCREMENT BY 50;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE comments_seq START WITH 50 INCREMENT BY 50;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE bookings_seq START WITH 50 INCREMENT BY 50;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_seq;
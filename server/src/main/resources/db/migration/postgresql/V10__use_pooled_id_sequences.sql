@@ -0,0 +1,28 @@
+-- Ids come from sequences that step by the allocationSize of the entities, so that Hibernate
+-- reserves a block of ids with one call and can batch inserts: an identity column makes it
+-- insert every entity on its own. Each sequence restarts past the existing ids, the first
+-- block it hands out being (value - 49 .. value]. Column defaults keep plain inserts working.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM users;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE requests_seq INCREMENT BY 50 OWNED BY requests.id;
+SELECT setval('requests_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM requests;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE items_seq INCREMENT BY 50 OWNED BY items.id;
+SELECT setval('items_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM items;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE comments_seq INCREMENT BY 50 OWNED BY comments.id;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM comments;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+-- Partitioned bookings already take their id from a plain sequence.
+ALTER SEQUENCE bookings_id_seq RENAME TO bookings_seq;
+ALTER SEQUENCE bookings_seq INCREMENT BY 50;
+SELECT setval('bookings_seq', COALESCE(MAX(id), 0) + 50, FALSE) FROM bookings;
@@ -0,0 +1,25 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_booker_id_start_date
+    ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_item_id_start_date
+    ON bookings (item_id, start_date);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_booker_id_start_date
+    ON bookings (booker_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_waiting_item_id_start_date
+    ON bookings (item_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_owner_id
+    ON items (owner_id, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_items_request_id
+    ON items (request_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_requester_id_created_at
+    ON requests (requester_id, created_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item_id
+    ON comments (item_id);
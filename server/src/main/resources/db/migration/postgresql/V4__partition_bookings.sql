@@ -0,0 +1,53 @@
+-- Bookings are split into a hot partition (archived = FALSE) that serves current, future and
+-- waiting bookings, and a cold partition for completed bookings moved there by BookingArchiver.
+-- The cold partition can be placed on a cheaper tablespace independently of the hot one.
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+ALTER TABLE bookings_unpartitioned RENAME CONSTRAINT pk_booking TO pk_booking_unpartitioned;
+
+CREATE TABLE bookings
+(
+    id         BIGINT                                  NOT NULL,
+    start_date TIMESTAMP(9) WITHOUT TIME ZONE          NOT NULL,
+    end_date   TIMESTAMP(9) WITHOUT TIME ZONE          NOT NULL,
+    item_id    BIGINT                                  NOT NULL,
+    booker_id  BIGINT                                  NOT NULL,
+    status     VARCHAR(255) DEFAULT 'WAITING',
+    version    BIGINT       DEFAULT 0                  NOT NULL,
+    archived   BOOLEAN      DEFAULT FALSE              NOT NULL,
+    CONSTRAINT pk_booking PRIMARY KEY (id, archived),
+    CONSTRAINT fk_booked_item_id FOREIGN KEY (item_id) REFERENCES items (id),
+    CONSTRAINT fk_booker_id FOREIGN KEY (booker_id) REFERENCES users (id)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE bookings_hot PARTITION OF bookings FOR VALUES IN (FALSE);
+
+CREATE TABLE bookings_archive PARTITION OF bookings FOR VALUES IN (TRUE);
+
+INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status, version)
+SELECT id, start_date, end_date, item_id, booker_id, status, version
+FROM bookings_unpartitioned;
+
+-- Identity columns are not supported on partitioned tables, the id comes from a plain sequence.
+CREATE SEQUENCE bookings_partitioned_id_seq OWNED BY bookings.id;
+SELECT setval('bookings_partitioned_id_seq', COALESCE(MAX(id), 0) + 1, FALSE) FROM bookings;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_partitioned_id_seq');
+
+DROP TABLE bookings_unpartitioned;
+ALTER SEQUENCE bookings_partitioned_id_seq RENAME TO bookings_id_seq;
+
+CREATE INDEX idx_bookings_booker_id_start_date
+    ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX idx_bookings_item_id_start_date
+    ON bookings (item_id, start_date);
+
+CREATE INDEX idx_bookings_waiting_booker_id_start_date
+    ON bookings_hot (booker_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX idx_bookings_waiting_item_id_start_date
+    ON bookings_hot (item_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX idx_bookings_hot_end_date
+    ON bookings_hot (end_date);
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_item_id_created_at
+    ON comments (item_id, created_at DESC, id DESC);
@@ -0,0 +1,242 @@
+package ru.practicum.shareit;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.EntityManager;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persists items and bookings with the sequence ids of the real entities and the same rows
+ * through copies of them mapped with identity ids, which make Hibernate insert one row at a time.
+ * The copies live in tables created for the run. Runs against the configured database and rolls
+ * every round back. Run with {@code SPRING_DATASOURCE_URL=jdbc:postgresql://...?reWriteBatchedInserts=true
+ * POSTGRES_USER=... POSTGRES_PASSWORD=... mvn test -Dbenchmark=true -Dtest=BulkInsertBenchmarkTest};
+ * the medians are logged in a form that can be pasted into a commit message.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.outbox.poll-interval=PT1H")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkInsertBenchmarkTest {
+    private static final int ROWS = 10_000;
+    private static final int ROUNDS = 5;
+    private static final int FLUSH_EVERY = 1_000;
+    private static final long MIN_SPEEDUP = 3;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createIdentityTables() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS identity_items (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "name VARCHAR(255) NOT NULL, " +
+                "description VARCHAR(512) NOT NULL, " +
+                "is_available BOOLEAN NOT NULL, " +
+                "owner_id BIGINT NOT NULL REFERENCES users (id))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS identity_bookings (" +
+                "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "start_date TIMESTAMP NOT NULL, " +
+                "end_date TIMESTAMP NOT NULL, " +
+                "item_id BIGINT NOT NULL REFERENCES items (id), " +
+                "booker_id BIGINT NOT NULL REFERENCES users (id), " +
+                "status VARCHAR(255))");
+    }
+
+    @AfterEach
+    void dropIdentityTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS identity_bookings");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS identity_items");
+    }
+
+    @Test
+    void sequenceIdsAreFasterThanIdentity() {
+        long itemsWithIdentity = medianMillis(this::insertIdentityItems);
+        long itemsWithSequence = medianMillis(this::insertItems);
+        long bookingsWithIdentity = medianMillis(this::insertIdentityBookings);
+        long bookingsWithSequence = medianMillis(this::insertBookings);
+
+        log.info("Медиана {} прогонов по {} строк на {}:\n" +
+                        "items:    identity {} мс, sequence {} мс\n" +
+                        "bookings: identity {} мс, sequence {} мс",
+                ROUNDS, ROWS, databaseVersion(), itemsWithIdentity, itemsWithSequence,
+                bookingsWithIdentity, bookingsWithSequence);
+        assertTrue(itemsWithIdentity >= MIN_SPEEDUP * itemsWithSequence,
+                itemsWithIdentity + " мс против " + itemsWithSequence + " мс для вещей");
+        assertTrue(bookingsWithIdentity >= MIN_SPEEDUP * bookingsWithSequence,
+                bookingsWithIdentity + " мс против " + bookingsWithSequence + " мс для бронирований");
+    }
+
+    private String databaseVersion() {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName() + " " + connection.getMetaData().getDatabaseProductVersion());
+    }
+
+    private void insertItems(User owner, Item item) {
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(new Item(null, "Вещь " + i, "Описание " + i, true, owner, null, null));
+            flushEvery(i);
+        }
+    }
+
+    private void insertIdentityItems(User owner, Item item) {
+        for (int i = 0; i < ROWS; i++) {
+            IdentityItem identityItem = new IdentityItem();
+            identityItem.setName("Вещь " + i);
+            identityItem.setDescription("Описание " + i);
+            identityItem.setAvailable(true);
+            identityItem.setOwner(owner);
+            entityManager.persist(identityItem);
+            flushEvery(i);
+        }
+    }
+
+    private void insertBookings(User booker, Item item) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(new Booking(null, start.plusHours(i), start.plusHours(i + 1), item, booker,
+                    Booking.Status.WAITING));
+            flushEvery(i);
+        }
+    }
+
+    private void insertIdentityBookings(User booker, Item item) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            IdentityBooking booking = new IdentityBooking();
+            booking.setStart(start.plusHours(i));
+            booking.setEnd(start.plusHours(i + 1));
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(Booking.Status.WAITING);
+            entityManager.persist(booking);
+            flushEvery(i);
+        }
+    }
+
+    private void flushEvery(int i) {
+        if ((i + 1) % FLUSH_EVERY == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * The first round only warms up.
+     */
+    private long medianMillis(BiConsumer<User, Item> inserts) {
+        long[] millis = new long[ROUNDS];
+        timeMillis(inserts);
+        for (int i = 0; i < ROUNDS; i++) {
+            millis[i] = timeMillis(inserts);
+        }
+        Arrays.sort(millis);
+        return millis[ROUNDS / 2];
+    }
+
+    private long timeMillis(BiConsumer<User, Item> inserts) {
+        Long millis = transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            User user = new User(null, "Igor", UUID.randomUUID() + "@gmail.dom", Collections.emptyList());
+            entityManager.persist(user);
+            Item item = new Item(null, "Дрель", "Ударная", true, user, null, null);
+            entityManager.persist(item);
+            entityManager.flush();
+
+            long start = System.nanoTime();
+            inserts.accept(user, item);
+            entityManager.flush();
+            return (System.nanoTime() - start) / 1_000_000;
+        });
+        return millis == null ? 0 : millis;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @Entity
+    @Table(name = "identity_items")
+    static class IdentityItem {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        private String name;
+
+        private String description;
+
+        @Column(name = "is_available")
+        private Boolean available;
+
+        @ManyToOne
+        @JoinColumn(name = "owner_id")
+        private User owner;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @Entity
+    @Table(name = "identity_bookings")
+    static class IdentityBooking {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "start_date")
+        private LocalDateTime start;
+
+        @Column(name = "end_date")
+        private LocalDateTime end;
+
+        @ManyToOne
+        @JoinColumn(name = "item_id")
+        private Item item;
+
+        @ManyToOne
+        @JoinColumn(name = "booker_id")
+        private User booker;
+
+        @Enumerated(EnumType.STRING)
+        private Booking.Status status;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against the database from {@code SPRING_DATASOURCE_URL} when it is PostgreSQL. Sequential
+ * scans are switched off, so on the empty tables of a fresh database the plan shows which index
+ * the planner would take once they grow.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class PostgresSchemaIndexesTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void disableSeqScan() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    @Test
+    void concurrentlyCreatedIndexesAreValid() {
+        List<String> invalid = jdbcTemplate.queryForList("SELECT c.relname FROM pg_index AS i " +
+                "JOIN pg_class AS c ON c.oid = i.indexrelid WHERE NOT i.indisvalid", String.class);
+
+        assertEquals(List.of(), invalid);
+    }
+
+    @Test
+    void waitingBookingsByBookerUsePartialIndex() {
+        String plan = explain("SELECT id FROM bookings WHERE archived = FALSE AND booker_id = 1 " +
+                "AND status = 'WAITING' ORDER BY start_date DESC, id DESC LIMIT 10");
+
+        assertTrue(plan.contains("idx_bookings_waiting_booker_id_start_date"), plan);
+    }
+
+    @Test
+    void waitingBookingsByItemUsePartialIndex() {
+        String plan = explain("SELECT id FROM bookings WHERE archived = FALSE AND item_id = 1 " +
+                "AND status = 'WAITING' ORDER BY start_date DESC, id DESC LIMIT 10");
+
+        assertTrue(plan.contains("idx_bookings_waiting_item_id_start_date"), plan);
+    }
+
+    @Test
+    void itemsByOwnerUseIndex() {
+        String plan = explain("SELECT id FROM items WHERE owner_id = 1 ORDER BY id LIMIT 10");
+
+        assertTrue(plan.contains("idx_items_owner_id"), plan);
+    }
+
+    @Test
+    void itemsByRequestUseIndex() {
+        String plan = explain("SELECT id FROM items WHERE request_id = 1");
+
+        assertTrue(plan.contains("idx_items_request_id"), plan);
+    }
+
+    @Test
+    void requestsByRequesterUseIndex() {
+        String plan = explain("SELECT id FROM requests WHERE requester_id = 1 ORDER BY created_at");
+
+        assertTrue(plan.contains("idx_requests_requester_id_created_at"), plan);
+    }
+
+    @Test
+    void commentsByItemUseIndex() {
+        String plan = explain("SELECT id FROM comments WHERE item_id = 1");
+
+        assertTrue(Pattern.compile("\\bidx_comments_item_id\\b").matcher(plan).find(), plan);
+    }
+}
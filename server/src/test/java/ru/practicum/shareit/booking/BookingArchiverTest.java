@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+import ru.practicum.shareit.booking.service.BookingArchiver;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiverTest {
+    @Mock
+    private BookingJdbcRepository bookingJdbcRepository;
+
+    @Test
+    void archiveInChunksUntilChunkIsNotFull() {
+        BookingArchiver bookingArchiver = new BookingArchiver(bookingJdbcRepository, Duration.ofDays(365), 2);
+        when(bookingJdbcRepository.archiveEndedBefore(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+
+        bookingArchiver.archive();
+
+        verify(bookingJdbcRepository, times(3)).archiveEndedBefore(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    void archiveOnlyBookingsEndedBeforeHorizon() {
+        BookingArchiver bookingArchiver = new BookingArchiver(bookingJdbcRepository, Duration.ofDays(365), 10);
+        LocalDateTime horizon = LocalDateTime.now().minusDays(365);
+        when(bookingJdbcRepository.archiveEndedBefore(any(LocalDateTime.class), eq(10))).thenAnswer(invocation -> {
+            LocalDateTime endedBefore = invocation.getArgument(0);
+            assertTrue(!endedBefore.isBefore(horizon) && endedBefore.isBefore(horizon.plusMinutes(1)));
+            return 0;
+        });
+
+        bookingArchiver.archive();
+    }
+
+    @Test
+    void negativeHorizonIsNotAllowed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BookingArchiver(bookingJdbcRepository, Duration.ofDays(-1), 10));
+    }
+}
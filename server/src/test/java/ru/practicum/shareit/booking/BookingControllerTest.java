@@ -8,8 +8,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -20,6 +23,7 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoForBooking;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -30,7 +34,10 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -183,4 +190,74 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(outcomingBookingDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[0].item.id", is(outcomingBookingDto.getItem().getId()), Long.class));
     }
+
+    @Test
+    void getPageByUserIdWithCursor() throws Exception {
+        when(bookingService.getPageByUserId(1L, State.ALL, "", 10))
+                .thenReturn(new CursorPage<>(List.of(outcomingBookingDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("state", "ALL")
+                        .param("size", "10")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id", is(outcomingBookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void getLastPageForItemOwnerWithCursor() throws Exception {
+        when(bookingService.getPageForItemOwnerId(1L, State.ALL, "cursor", 10))
+                .thenReturn(new CursorPage<>(List.of(outcomingBookingDto), null));
+
+        mvc.perform(get("/bookings/owner")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "10")
+                        .param("cursor", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].id", is(outcomingBookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void changeStatuses() throws Exception {
+        IncomingBookingStatusDto incomingBookingStatusDto = new IncomingBookingStatusDto(List.of(1L, 2L), true);
+        when(bookingService.changeStatuses(any(IncomingBookingStatusDto.class), anyLong())).thenReturn(List.of(
+                new BookingStatusChangeDto(1L, BookingStatusChangeDto.Outcome.CHANGED, Booking.Status.APPROVED),
+                new BookingStatusChangeDto(2L, BookingStatusChangeDto.Outcome.NOT_FOUND, null)));
+
+        mvc.perform(patch("/bookings/status")
+                        .content(mapper.writeValueAsString(incomingBookingStatusDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].outcome", is("CHANGED")))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].bookingId", is(2L), Long.class))
+                .andExpect(jsonPath("$[1].outcome", is("NOT_FOUND")));
+    }
+
+    @Test
+    void exportForItemOwner() throws Exception {
+        when(bookingService.exportForItemOwnerId(1L)).thenReturn(consumer -> {
+            consumer.accept(outcomingBookingDto);
+            consumer.accept(outcomingBookingDto);
+        });
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String line = mapper.writeValueAsString(outcomingBookingDto) + "\n";
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + line));
+    }
 }
@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingsGetter;
@@ -50,6 +52,7 @@ class BookingGetterTest {
             item,
             secondUser,
             Booking.Status.WAITING);
+    private final OutcomingBookingDto bookingDto = BookingMapper.toOutcomingDto(booking);
     @InjectMocks
     private BookingsGetter bookingsGetter;
 
@@ -58,25 +61,25 @@ class BookingGetterTest {
 
     @Test
     void getBookingsForUserAllState() {
-        when(bookingRepository.findAllByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.ALL, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.ALL, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForUserWaitingState() {
-        when(bookingRepository.findAllByBookerIdAndStatus(
+        when(bookingRepository.findHotByBookerIdAndStatus(
                 anyLong(),
                 eq(Booking.Status.WAITING),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.WAITING, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.WAITING, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
@@ -84,12 +87,12 @@ class BookingGetterTest {
         when(bookingRepository.findAllByBookerIdAndStatus(
                 anyLong(),
                 eq(Booking.Status.REJECTED),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.REJECTED, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.REJECTED, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
@@ -97,12 +100,12 @@ class BookingGetterTest {
         when(bookingRepository.findAllByBookerIdAndEndBefore(
                 anyLong(),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.PAST, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.PAST, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
@@ -110,12 +113,12 @@ class BookingGetterTest {
         when(bookingRepository.findAllByBookerIdAndStartAfter(
                 anyLong(),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.FUTURE, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.FUTURE, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
@@ -124,88 +127,88 @@ class BookingGetterTest {
                 anyLong(),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.CURRENT, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forUser(firstUser.getId(), State.CURRENT, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForItemOwnerAllState() {
-        when(bookingRepository.findAllByItemIdIn(anyCollection(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forItemOwner(List.of(item.getId()), State.ALL, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forItemOwner(firstUser.getId(), State.ALL, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForItemOwnerWaitingState() {
-        when(bookingRepository.findAllByItemIdInAndStatus(
-                anyCollection(),
+        when(bookingRepository.findHotByItemOwnerIdAndStatus(
+                anyLong(),
                 eq(Booking.Status.WAITING),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forItemOwner(List.of(item.getId()), State.WAITING, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forItemOwner(firstUser.getId(), State.WAITING, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForItemOwnerRejectedState() {
-        when(bookingRepository.findAllByItemIdInAndStatus(
-                anyCollection(),
+        when(bookingRepository.findAllByItemOwnerIdAndStatus(
+                anyLong(),
                 eq(Booking.Status.REJECTED),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forItemOwner(List.of(item.getId()), State.REJECTED, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forItemOwner(firstUser.getId(), State.REJECTED, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForItemOwnerPastState() {
-        when(bookingRepository.findAllByItemIdInAndEndBefore(
-                anyCollection(),
+        when(bookingRepository.findAllByItemOwnerIdAndEndBefore(
+                anyLong(),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forItemOwner(List.of(item.getId()), State.PAST, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forItemOwner(firstUser.getId(), State.PAST, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForItemOwnerFutureState() {
-        when(bookingRepository.findAllByItemIdInAndStartAfter(
-                anyCollection(),
+        when(bookingRepository.findAllByItemOwnerIdAndStartAfter(
+                anyLong(),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forItemOwner(List.of(item.getId()), State.FUTURE, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forItemOwner(firstUser.getId(), State.FUTURE, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
     @Test
     void getBookingsForItemOwnerCurrentState() {
-        when(bookingRepository.findAllByItemIdInAndStartBeforeAndEndAfter(
-                anyCollection(),
+        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfter(
+                anyLong(),
                 any(LocalDateTime.class),
                 any(LocalDateTime.class),
-                any(Pageable.class))).thenReturn(List.of(booking));
+                any(Pageable.class))).thenReturn(List.of(bookingDto));
 
-        List<Booking> bookings = new ArrayList<>(bookingsGetter.forItemOwner(List.of(item.getId()), State.CURRENT, Pageable.unpaged()));
+        List<OutcomingBookingDto> bookings = new ArrayList<>(bookingsGetter.forItemOwner(firstUser.getId(), State.CURRENT, Pageable.unpaged()));
 
         assertFalse(bookings.isEmpty());
-        assertEquals(booking, bookings.get(0));
+        assertEquals(bookingDto, bookings.get(0));
     }
 
 }
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final LocalDateTime end = start.plusDays(2);
+
+    @Test
+    void overlapsWithLoadedBooking() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(new BookingInterval(1L, start, end)));
+
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.minusHours(1), start.plusHours(1)));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.plusHours(1), end.minusHours(1)));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.minusDays(1), end.plusDays(1)));
+        assertFalse(bookingIntervalIndex.overlaps(1L, start.minusDays(1), start));
+        assertFalse(bookingIntervalIndex.overlaps(1L, end, end.plusDays(1)));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any());
+    }
+
+    @Test
+    void addAndRemoveBooking() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of());
+
+        assertFalse(bookingIntervalIndex.overlaps(1L, start, end));
+
+        bookingIntervalIndex.add(1L, new BookingInterval(1L, start, end));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.plusHours(1), end.plusDays(1)));
+
+        bookingIntervalIndex.remove(1L, 1L);
+        assertFalse(bookingIntervalIndex.overlaps(1L, start.plusHours(1), end.plusDays(1)));
+    }
+
+    @Test
+    void finishedBookingsDoNotOverlap() {
+        LocalDateTime pastStart = LocalDateTime.now().minusDays(2);
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of());
+
+        bookingIntervalIndex.add(1L, new BookingInterval(1L, pastStart, pastStart.plusDays(1)));
+
+        assertFalse(bookingIntervalIndex.overlaps(1L, pastStart, end));
+    }
+
+    @Test
+    void overlapsWithBookingInsideLongerOne() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(new BookingInterval(1L, start, start.plusDays(10)),
+                        new BookingInterval(2L, start.plusDays(1), start.plusDays(2))));
+
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.plusDays(5), start.plusDays(6)));
+        assertFalse(bookingIntervalIndex.overlaps(1L, start.plusDays(10), start.plusDays(11)));
+    }
+
+    @Test
+    void removingBookingSplitsMergedOnes() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(new BookingInterval(1L, start, start.plusDays(10)),
+                        new BookingInterval(2L, start.plusDays(1), start.plusDays(2)),
+                        new BookingInterval(3L, start.plusDays(8), start.plusDays(12))));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.plusDays(5), start.plusDays(6)));
+
+        bookingIntervalIndex.remove(1L, 1L);
+
+        assertFalse(bookingIntervalIndex.overlaps(1L, start.plusDays(5), start.plusDays(6)));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.plusDays(1), start.plusDays(3)));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start.plusDays(11), start.plusDays(13)));
+        assertFalse(bookingIntervalIndex.overlaps(1L, start.plusDays(12), start.plusDays(13)));
+    }
+
+    @Test
+    void removedBookingIsRestoredOnRollback() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(new BookingInterval(1L, start, end), new BookingInterval(2L, end, end.plusDays(1))));
+        assertTrue(bookingIntervalIndex.overlaps(1L, start, end));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingIntervalIndex.remove(1L, 1L);
+            assertFalse(bookingIntervalIndex.overlaps(1L, start, end));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(bookingIntervalIndex.overlaps(1L, start, end));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any());
+    }
+
+    @Test
+    void itemWithoutBookingsIsEvicted() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any()))
+                .thenReturn(List.of(new BookingInterval(1L, start, end)))
+                .thenReturn(List.of());
+        assertTrue(bookingIntervalIndex.overlaps(1L, start, end));
+
+        bookingIntervalIndex.remove(1L, 1L);
+
+        assertFalse(bookingIntervalIndex.overlaps(1L, start, end));
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(1L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any());
+    }
+}
@@ -0,0 +1,280 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.CommentEligibilityView;
+import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BookingRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private final User owner = new User(
+            null,
+            "Owner",
+            "owner@gmail.com",
+            Collections.emptyList());
+
+    private final User booker = new User(
+            null,
+            "Booker",
+            "booker@gmail.com",
+            Collections.emptyList());
+
+    private final Item item = new Item(
+            null,
+            "Дрель",
+            "Простая дрель",
+            true,
+            owner,
+            null,
+            Collections.emptyList());
+
+    private final Item anotherItem = new Item(
+            null,
+            "Палатка",
+            "Четырехместная палатка",
+            true,
+            owner,
+            null,
+            Collections.emptyList());
+
+    @BeforeEach
+    void setup() {
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(item);
+        entityManager.persist(anotherItem);
+        entityManager.flush();
+    }
+
+    private Booking persistBooking(Item bookedItem, LocalDateTime start, LocalDateTime end, Booking.Status status) {
+        Booking booking = new Booking(null, start, end, bookedItem, booker, status);
+        entityManager.persist(booking);
+        entityManager.flush();
+        return booking;
+    }
+
+    @Test
+    void findLastAndNextForItems() {
+        persistBooking(item, now.minusDays(5), now.minusDays(4), Booking.Status.APPROVED);
+        Booking last = persistBooking(item, now.minusDays(3), now.minusDays(2), Booking.Status.APPROVED);
+        persistBooking(item, now.plusHours(12), now.plusHours(13), Booking.Status.REJECTED);
+        Booking next = persistBooking(item, now.plusDays(1), now.plusDays(2), Booking.Status.WAITING);
+        persistBooking(item, now.plusDays(3), now.plusDays(4), Booking.Status.APPROVED);
+        Booking anotherNext = persistBooking(anotherItem, now.plusDays(1), now.plusDays(2), Booking.Status.APPROVED);
+
+        List<BookingForItemView> found = bookingRepository.findLastAndNextForItems(
+                List.of(item.getId(), anotherItem.getId()), now);
+
+        assertEquals(3, found.size());
+        Map<Long, BookingForItemView> byId = found.stream()
+                .collect(Collectors.toMap(BookingForItemView::getId, Function.identity()));
+        assertTrue(byId.containsKey(last.getId()));
+        assertTrue(byId.containsKey(next.getId()));
+        assertTrue(byId.containsKey(anotherNext.getId()));
+        assertEquals(item.getId(), byId.get(last.getId()).getItemId());
+        assertEquals(booker.getId(), byId.get(last.getId()).getBookerId());
+        assertTrue(byId.get(last.getId()).getStartDate().isBefore(now));
+        assertTrue(byId.get(next.getId()).getStartDate().isAfter(now));
+    }
+
+    @Test
+    void findLastAndNextForItemsWithoutBookings() {
+        List<BookingForItemView> found = bookingRepository.findLastAndNextForItems(List.of(item.getId()), now);
+
+        assertTrue(found.isEmpty());
+    }
+
+    @Test
+    void findLastForItem() {
+        persistBooking(item, now.minusDays(5), now.minusDays(4), Booking.Status.APPROVED);
+        Booking last = persistBooking(item, now.minusDays(3), now.minusDays(2), Booking.Status.APPROVED);
+        persistBooking(item, now.minusDays(1), now.minusHours(1), Booking.Status.REJECTED);
+
+        BookingForItemView found = bookingRepository.findLastForItem(item.getId(), now).orElse(null);
+
+        assertNotNull(found);
+        assertEquals(last.getId(), found.getId());
+        assertEquals(booker.getId(), found.getBookerId());
+    }
+
+    @Test
+    void findNextForItem() {
+        persistBooking(item, now.plusHours(12), now.plusHours(13), Booking.Status.REJECTED);
+        Booking next = persistBooking(item, now.plusDays(1), now.plusDays(2), Booking.Status.WAITING);
+        persistBooking(item, now.plusDays(3), now.plusDays(4), Booking.Status.APPROVED);
+
+        BookingForItemView found = bookingRepository.findNextForItem(item.getId(), now).orElse(null);
+
+        assertNotNull(found);
+        assertEquals(next.getId(), found.getId());
+        assertTrue(bookingRepository.findLastForItem(item.getId(), now).isEmpty());
+    }
+
+    @Test
+    void findAllByBookerIdAfterCursor() {
+        LocalDateTime sameStart = now.plusDays(2);
+        Booking first = persistBooking(item, now.plusDays(3), now.plusDays(4), Booking.Status.APPROVED);
+        Booking second = persistBooking(anotherItem, sameStart, now.plusDays(3), Booking.Status.APPROVED);
+        Booking third = persistBooking(item, sameStart, now.plusDays(3), Booking.Status.WAITING);
+        Booking fourth = persistBooking(item, now.plusDays(1), now.plusDays(2), Booking.Status.APPROVED);
+
+        List<OutcomingBookingDto> firstPage = bookingRepository.findAllByBookerIdAfterCursor(
+                booker.getId(), now.plusYears(1), Long.MAX_VALUE, PageRequest.of(0, 2));
+        OutcomingBookingDto lastOfFirstPage = firstPage.get(firstPage.size() - 1);
+        List<OutcomingBookingDto> secondPage = bookingRepository.findAllByBookerIdAfterCursor(
+                booker.getId(), lastOfFirstPage.getStart(), lastOfFirstPage.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(first.getId(), third.getId()),
+                firstPage.stream().map(OutcomingBookingDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(second.getId(), fourth.getId()),
+                secondPage.stream().map(OutcomingBookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllByItemOwnerIdAndStatusAfterCursor() {
+        Booking first = persistBooking(item, now.plusDays(3), now.plusDays(4), Booking.Status.WAITING);
+        persistBooking(item, now.plusDays(2), now.plusDays(3), Booking.Status.APPROVED);
+        Booking second = persistBooking(anotherItem, now.plusDays(1), now.plusDays(2), Booking.Status.WAITING);
+
+        List<OutcomingBookingDto> page = bookingRepository.findAllByItemOwnerIdAndStatusAfterCursor(
+                owner.getId(), Booking.Status.WAITING,
+                first.getStart(), first.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(second.getId()), page.stream().map(OutcomingBookingDto::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllByItemOwnerId() {
+        Item foreignItem = new Item(null, "Пила", "Ручная пила", true, booker, null, Collections.emptyList());
+        entityManager.persist(foreignItem);
+        Booking first = persistBooking(item, now.minusDays(2), now.minusDays(1), Booking.Status.APPROVED);
+        Booking second = persistBooking(anotherItem, now.plusDays(1), now.plusDays(2), Booking.Status.WAITING);
+        persistBooking(foreignItem, now.plusDays(3), now.plusDays(4), Booking.Status.WAITING);
+
+        List<OutcomingBookingDto> found = bookingRepository.findAllByItemOwnerId(owner.getId(),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id")));
+
+        assertEquals(List.of(second.getId(), first.getId()),
+                found.stream().map(OutcomingBookingDto::getId).collect(Collectors.toList()));
+        assertEquals(new OutcomingBookingDto(second.getId(), second.getStart(), second.getEnd(), Booking.Status.WAITING,
+                booker.getId(), anotherItem.getId(), anotherItem.getName()), found.get(0));
+    }
+
+    @Test
+    void updateStatusByIdAndItemOwnerId() {
+        Booking booking = persistBooking(item, now.plusDays(1), now.plusDays(2), Booking.Status.WAITING);
+
+        int byBooker = bookingRepository.updateStatusByIdAndItemOwnerId(
+                booking.getId(), booker.getId(), Booking.Status.WAITING, Booking.Status.APPROVED);
+        int byOwner = bookingRepository.updateStatusByIdAndItemOwnerId(
+                booking.getId(), owner.getId(), Booking.Status.WAITING, Booking.Status.APPROVED);
+        int repeated = bookingRepository.updateStatusByIdAndItemOwnerId(
+                booking.getId(), owner.getId(), Booking.Status.WAITING, Booking.Status.REJECTED);
+
+        assertEquals(0, byBooker);
+        assertEquals(1, byOwner);
+        assertEquals(0, repeated);
+        Booking updated = entityManager.find(Booking.class, booking.getId());
+        assertEquals(Booking.Status.APPROVED, updated.getStatus());
+        assertEquals(1L, updated.getVersion());
+    }
+
+    @Test
+    void findIntervalsInRange() {
+        persistBooking(item, now.minusDays(3), now.minusDays(2), Booking.Status.APPROVED);
+        Booking second = persistBooking(item, now.plusDays(3), now.plusDays(4), Booking.Status.APPROVED);
+        persistBooking(item, now.plusDays(2), now.plusDays(3), Booking.Status.REJECTED);
+        Booking first = persistBooking(item, now.minusDays(1), now.plusDays(1), Booking.Status.WAITING);
+        persistBooking(item, now.plusDays(8), now.plusDays(9), Booking.Status.APPROVED);
+        persistBooking(anotherItem, now.plusDays(1), now.plusDays(2), Booking.Status.APPROVED);
+
+        List<BookingInterval> found = bookingRepository.findIntervalsInRange(item.getId(),
+                BookingIntervalIndex.ACTIVE_STATUSES, now, now.plusDays(7));
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                found.stream().map(BookingInterval::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void archivedBookingsAreNotInHotQueries() {
+        LocalDateTime longAgo = now.minusYears(2);
+        persistBooking(item, longAgo, longAgo.plusDays(1), Booking.Status.APPROVED);
+        Booking forgotten = persistBooking(item, longAgo, longAgo.plusDays(1), Booking.Status.WAITING);
+        Booking recent = persistBooking(item, now.minusDays(2), now.minusDays(1), Booking.Status.WAITING);
+
+        int archived = new BookingJdbcRepository(jdbcTemplate).archiveEndedBefore(now.minusYears(1), 10);
+        entityManager.clear();
+
+        assertEquals(1, archived);
+        assertEquals(List.of(),
+                bookingRepository.findHotByBookerIdAndStatus(booker.getId(), Booking.Status.APPROVED, Pageable.unpaged()));
+        assertEquals(1, bookingRepository.findAllByBookerIdAndStatus(
+                booker.getId(), Booking.Status.APPROVED, Pageable.unpaged()).size());
+        assertEquals(Set.of(recent.getId(), forgotten.getId()),
+                bookingRepository.findHotByBookerIdAndStatus(booker.getId(), Booking.Status.WAITING, Pageable.unpaged())
+                        .stream().map(OutcomingBookingDto::getId).collect(Collectors.toSet()));
+        assertEquals(2, bookingRepository.findHotByItemOwnerIdAndStatus(
+                owner.getId(), Booking.Status.WAITING, Pageable.unpaged()).size());
+        assertEquals(3, bookingRepository.findAllByBookerIdAndEndBefore(
+                booker.getId(), now, Pageable.unpaged()).size());
+    }
+
+    @Test
+    void findCommentEligibility() {
+        persistBooking(item, now.minusDays(3), now.minusDays(2), Booking.Status.APPROVED);
+        persistBooking(anotherItem, now.minusDays(3), now.minusDays(2), Booking.Status.REJECTED);
+
+        CommentEligibilityView bookedItem = bookingRepository
+                .findCommentEligibility(booker.getId(), item.getId(), now).orElseThrow();
+        CommentEligibilityView rejectedItem = bookingRepository
+                .findCommentEligibility(booker.getId(), anotherItem.getId(), now).orElseThrow();
+        CommentEligibilityView missingItem = bookingRepository
+                .findCommentEligibility(booker.getId(), -1L, now).orElseThrow();
+
+        assertEquals(booker.getName(), bookedItem.getAuthorName());
+        assertTrue(bookedItem.getItemExists());
+        assertTrue(bookedItem.getBookedInPast());
+        assertTrue(rejectedItem.getItemExists());
+        assertFalse(rejectedItem.getBookedInPast());
+        assertFalse(missingItem.getItemExists());
+        assertTrue(bookingRepository.findCommentEligibility(-1L, item.getId(), now).isEmpty());
+    }
+}
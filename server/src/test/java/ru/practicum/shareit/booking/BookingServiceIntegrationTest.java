@@ -165,4 +165,27 @@ class BookingServiceIntegrationTest {
 
         assertThrows(BookingNotFoundException.class, () -> bookingService.getById(bookingId, addedUser.getId()));
     }
+
+    @Test
+    void exportBookingsForItemOwner() {
+        UserDto owner = userService.add(userDto1);
+        ItemDto item = itemService.add(itemDto1, owner.getId());
+        UserDto booker = userService.add(userDto2);
+        OutcomingBookingDto booking = bookingService.add(booker.getId(), new IncomingBookingDto(
+                null,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                null,
+                booker.getId(),
+                item.getId()));
+
+        List<OutcomingBookingDto> exported = new ArrayList<>();
+        bookingService.exportForItemOwnerId(owner.getId()).writeTo(exported::add);
+
+        assertEquals(1, exported.size());
+        assertEquals(booking.getId(), exported.get(0).getId());
+        assertEquals(booker.getId(), exported.get(0).getBooker().getId());
+        assertEquals(item.getName(), exported.get(0).getItem().getName());
+        assertEquals(Booking.Status.WAITING, exported.get(0).getStatus());
+    }
 }
@@ -7,35 +7,55 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingStatusChangeDto;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.booking.dto.IncomingBookingStatusDto;
 import ru.practicum.shareit.booking.dto.OutcomingBookingDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
 import ru.practicum.shareit.booking.exception.ItemNotAvailableException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJdbcRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.booking.service.BookingsGetter;
+import ru.practicum.shareit.booking.service.LastAndNextBookingsCache;
 import ru.practicum.shareit.booking.service.State;
 import ru.practicum.shareit.item.dto.ItemDtoForBooking;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoForBooking;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetCursor;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +75,21 @@ class BookingServiceTest {
     @Mock
     private BookingsGetter bookingsGetter;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingJdbcRepository bookingJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private LastAndNextBookingsCache lastAndNextBookingsCache;
+
     private final LocalDateTime start = LocalDateTime.now().plusMinutes(1);
     private final LocalDateTime end = LocalDateTime.now().plusDays(1);
 
@@ -144,10 +179,26 @@ class BookingServiceTest {
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(secondUser));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.withItemLock(anyLong(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
 
         OutcomingBookingDto createdBooking = bookingService.add(secondUser.getId(), incomingBookingDto);
 
         assertEquals(outcomingBookingDto, createdBooking);
+        verify(bookingIntervalIndex).add(eq(item.getId()), any());
+        verify(outbox).record(AggregateType.BOOKING, booking.getId(), ChangeType.CREATED);
+        verify(lastAndNextBookingsCache).invalidate(item.getId());
+    }
+
+    @Test
+    void addBookingForAlreadyBookedDates() {
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(secondUser));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.withItemLock(anyLong(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
+        when(bookingIntervalIndex.overlaps(item.getId(), start, end)).thenReturn(true);
+
+        assertThrows(ItemNotAvailableException.class,
+                () -> bookingService.add(secondUser.getId(), incomingBookingDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -156,6 +207,7 @@ class BookingServiceTest {
         when(userRepository.findById(secondUser.getId())).thenReturn(Optional.of(secondUser));
         when(userRepository.findById(not(eq(secondUser.getId())))).thenThrow(UserNotFoundException.class);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.withItemLock(anyLong(), any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(1)).get());
 
         bookingService.add(secondUser.getId(), incomingBookingDto);
 
@@ -192,13 +244,28 @@ class BookingServiceTest {
 
     @Test
     void changeBookingStatus() {
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.save(any(Booking.class))).thenReturn(bookingWaiting);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaiting));
+        when(bookingRepository.updateStatusByIdAndItemOwnerId(1L, 1L, Booking.Status.WAITING, Booking.Status.APPROVED))
+                .thenReturn(1);
+        when(bookingRepository.findOutcomingDtoById(1L)).thenReturn(Optional.of(outcomingBookingDto));
 
         OutcomingBookingDto approvedBooking = bookingService.changeStatus(1L, true, 1L);
 
         assertEquals(outcomingBookingDto, approvedBooking);
+        verify(bookingIntervalIndex, never()).remove(anyLong(), anyLong());
+        verify(lastAndNextBookingsCache).invalidate(item.getId());
+    }
+
+    @Test
+    void rejectBookingRemovesItFromIntervalIndex() {
+        when(bookingRepository.updateStatusByIdAndItemOwnerId(1L, 1L, Booking.Status.WAITING, Booking.Status.REJECTED))
+                .thenReturn(1);
+        when(bookingRepository.findOutcomingDtoById(1L)).thenReturn(Optional.of(new OutcomingBookingDto(
+                1L, start, end, Booking.Status.REJECTED, userDtoForBooking, itemDtoForBooking)));
+
+        OutcomingBookingDto rejectedBooking = bookingService.changeStatus(1L, false, 1L);
+
+        assertEquals(Booking.Status.REJECTED, rejectedBooking.getStatus());
+        verify(bookingIntervalIndex).remove(item.getId(), 1L);
     }
 
     @Test
@@ -210,6 +277,30 @@ class BookingServiceTest {
                 () -> bookingService.changeStatus(1L, true, 1L));
     }
 
+    @Test
+    void changeBookingStatusByNotOwner() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(bookingWaiting));
+
+        assertThrows(BookingNotFoundException.class,
+                () -> bookingService.changeStatus(1L, true, 2L));
+    }
+
+    @Test
+    void changeApprovedBookingStatusByNotOwner() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        assertThrows(BookingNotFoundException.class,
+                () -> bookingService.changeStatus(1L, true, 2L));
+    }
+
+    @Test
+    void changeBookingStatusByNotExistingUser() {
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.changeStatus(1L, true, 3L));
+    }
+
     @Test
     void approvingBookingWithWrongId() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
@@ -237,7 +328,7 @@ class BookingServiceTest {
 
     @Test
     void getAllByBooker() {
-        when(bookingsGetter.forUser(anyLong(), eq(State.ALL), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forUser(anyLong(), eq(State.ALL), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
         when(userRepository.existsById(anyLong())).thenReturn(true);
 
         Collection<OutcomingBookingDto> bookings = bookingService.getAllByUserId(1L, State.ALL, 0, 1);
@@ -248,7 +339,7 @@ class BookingServiceTest {
     @Test
     void getAllByBookerWithCurrentState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forUser(anyLong(), eq(State.CURRENT), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forUser(anyLong(), eq(State.CURRENT), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllByUserId(1L, State.CURRENT, 0, 1);
 
@@ -258,7 +349,7 @@ class BookingServiceTest {
     @Test
     void getAllByBookerWithWaitingState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forUser(anyLong(), eq(State.WAITING), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forUser(anyLong(), eq(State.WAITING), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllByUserId(1L, State.WAITING, 0, 1);
 
@@ -268,7 +359,7 @@ class BookingServiceTest {
     @Test
     void getAllByBookerWithPastState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forUser(anyLong(), eq(State.PAST), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forUser(anyLong(), eq(State.PAST), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllByUserId(1L, State.PAST, 0, 1);
 
@@ -278,7 +369,7 @@ class BookingServiceTest {
     @Test
     void getAllByBookerWithFutureState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forUser(anyLong(), eq(State.FUTURE), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forUser(anyLong(), eq(State.FUTURE), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllByUserId(1L, State.FUTURE, 0, 1);
 
@@ -288,7 +379,7 @@ class BookingServiceTest {
     @Test
     void getAllByBookerWithRejectedState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forUser(anyLong(), eq(State.REJECTED), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forUser(anyLong(), eq(State.REJECTED), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllByUserId(1L, State.REJECTED, 0, 1);
 
@@ -298,7 +389,7 @@ class BookingServiceTest {
     @Test
     void getAllByItemOwner() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forItemOwner(anyCollection(), eq(State.ALL), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forItemOwner(anyLong(), eq(State.ALL), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllForItemOwnerId(1L, State.ALL, 0, 1);
 
@@ -308,7 +399,7 @@ class BookingServiceTest {
     @Test
     void getAllByItemOwnerWithCurrentState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forItemOwner(anyCollection(), eq(State.CURRENT), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forItemOwner(anyLong(), eq(State.CURRENT), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllForItemOwnerId(1L, State.CURRENT, 0, 1);
 
@@ -318,7 +409,7 @@ class BookingServiceTest {
     @Test
     void getAllByItemOwnerWithWaitingState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forItemOwner(anyCollection(), eq(State.WAITING), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forItemOwner(anyLong(), eq(State.WAITING), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllForItemOwnerId(1L, State.WAITING, 0, 1);
 
@@ -328,7 +419,7 @@ class BookingServiceTest {
     @Test
     void getAllByItemOwnerWithPastState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forItemOwner(anyCollection(), eq(State.PAST), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forItemOwner(anyLong(), eq(State.PAST), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllForItemOwnerId(1L, State.PAST, 0, 1);
 
@@ -338,7 +429,7 @@ class BookingServiceTest {
     @Test
     void getAllByItemOwnerWithFutureState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forItemOwner(anyCollection(), eq(State.FUTURE), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forItemOwner(anyLong(), eq(State.FUTURE), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllForItemOwnerId(1L, State.FUTURE, 0, 1);
 
@@ -348,10 +439,121 @@ class BookingServiceTest {
     @Test
     void getAllByItemOwnerWithRejectedState() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingsGetter.forItemOwner(anyCollection(), eq(State.REJECTED), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingsGetter.forItemOwner(anyLong(), eq(State.REJECTED), any(Pageable.class))).thenReturn(List.of(outcomingBookingDto));
 
         Collection<OutcomingBookingDto> currentBookings = bookingService.getAllForItemOwnerId(1L, State.REJECTED, 0, 1);
 
         Assertions.assertEquals(1, currentBookings.size());
     }
+
+    @Test
+    void getFirstPageByBookerWithCursor() {
+        OutcomingBookingDto secondBooking = new OutcomingBookingDto(2L, start.minusSeconds(1), end, Booking.Status.WAITING,
+                secondUser.getId(), item.getId(), item.getName());
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingsGetter.forUser(1L, State.ALL, null, 2)).thenReturn(List.of(outcomingBookingDto, secondBooking));
+
+        CursorPage<OutcomingBookingDto> page = bookingService.getPageByUserId(1L, State.ALL, "", 1);
+
+        assertEquals(List.of(outcomingBookingDto), page.getItems());
+        assertEquals(new KeysetCursor(start, 1L), KeysetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getLastPageByItemOwnerWithCursor() {
+        KeysetCursor cursor = new KeysetCursor(end, 5L);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingsGetter.forItemOwner(1L, State.ALL, cursor, 11)).thenReturn(List.of(outcomingBookingDto));
+
+        CursorPage<OutcomingBookingDto> page = bookingService.getPageForItemOwnerId(1L, State.ALL, cursor.encode(), 10);
+
+        assertEquals(List.of(outcomingBookingDto), page.getItems());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPageWithInvalidCursor() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getPageByUserId(1L, State.ALL, "not a cursor", 10));
+    }
+
+    @Test
+    void changeStatuses() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findStatusesByIdInAndItemOwnerId(List.of(1L, 2L, 3L, 4L), 1L)).thenReturn(List.of(
+                statusView(1L, Booking.Status.WAITING),
+                statusView(2L, Booking.Status.APPROVED),
+                statusView(4L, Booking.Status.WAITING)));
+        when(bookingJdbcRepository.updateWaitingStatuses(List.of(1L, 4L), Booking.Status.REJECTED))
+                .thenReturn(new int[]{1, 0});
+
+        List<BookingStatusChangeDto> results = bookingService.changeStatuses(
+                new IncomingBookingStatusDto(List.of(1L, 2L, 3L, 4L, 1L), false), 1L);
+
+        assertEquals(List.of(
+                new BookingStatusChangeDto(1L, BookingStatusChangeDto.Outcome.CHANGED, Booking.Status.REJECTED),
+                new BookingStatusChangeDto(2L, BookingStatusChangeDto.Outcome.NOT_WAITING, Booking.Status.APPROVED),
+                new BookingStatusChangeDto(3L, BookingStatusChangeDto.Outcome.NOT_FOUND, null),
+                new BookingStatusChangeDto(4L, BookingStatusChangeDto.Outcome.NOT_WAITING, Booking.Status.WAITING)),
+                results);
+        verify(bookingIntervalIndex).remove(item.getId(), 1L);
+        verify(outbox).recordAll(AggregateType.BOOKING, List.of(1L), ChangeType.UPDATED);
+        verify(lastAndNextBookingsCache).invalidate(item.getId());
+    }
+
+    @Test
+    void changeStatusesByNotExistingUser() {
+        assertThrows(UserNotFoundException.class,
+                () -> bookingService.changeStatuses(new IncomingBookingStatusDto(List.of(1L), true), 3L));
+    }
+
+    private BookingStatusView statusView(Long id, Booking.Status status) {
+        return new BookingStatusView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Booking.Status getStatus() {
+                return status;
+            }
+        };
+    }
+
+    @Test
+    void exportForItemOwnerRunsInTransaction() {
+        OutcomingBookingDto exported = new OutcomingBookingDto(1L, start, end, Booking.Status.APPROVED, 2L, 1L, "Item");
+        when(userRepository.existsById(1L)).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        doAnswer(invocation -> {
+            Consumer<OutcomingBookingDto> consumer = invocation.getArgument(1);
+            consumer.accept(exported);
+            return null;
+        }).when(bookingJdbcRepository).streamForItemOwner(eq(1L), any());
+
+        List<OutcomingBookingDto> bookings = new ArrayList<>();
+        bookingService.exportForItemOwnerId(1L).writeTo(bookings::add);
+
+        assertEquals(List.of(exported), bookings);
+    }
+
+    @Test
+    void exportForNotExistingItemOwner() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> bookingService.exportForItemOwnerId(1L));
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.ItemAvailabilityResolver;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityResolverTest {
+    @InjectMocks
+    private ItemAvailabilityResolver itemAvailabilityResolver;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final LocalDateTime to = from.plusDays(10);
+
+    @Test
+    void wholePeriodIsFreeWithoutBookings() {
+        when(bookingRepository.findIntervalsInRange(1L, BookingIntervalIndex.ACTIVE_STATUSES, from, to))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(new TimeSlotDto(from, to)), itemAvailabilityResolver.freeSlots(1L, from, to));
+    }
+
+    @Test
+    void freeSlotsBetweenBookings() {
+        when(bookingRepository.findIntervalsInRange(1L, BookingIntervalIndex.ACTIVE_STATUSES, from, to))
+                .thenReturn(List.of(
+                        new BookingInterval(1L, from.minusDays(1), from.plusDays(1)),
+                        new BookingInterval(2L, from.plusDays(3), from.plusDays(5)),
+                        new BookingInterval(3L, from.plusDays(4), from.plusDays(6)),
+                        new BookingInterval(4L, from.plusDays(4), from.plusDays(5)),
+                        new BookingInterval(5L, from.plusDays(6), from.plusDays(7))));
+
+        assertEquals(List.of(
+                        new TimeSlotDto(from.plusDays(1), from.plusDays(3)),
+                        new TimeSlotDto(from.plusDays(7), to)),
+                itemAvailabilityResolver.freeSlots(1L, from, to));
+    }
+
+    @Test
+    void noFreeSlotsWhenPeriodIsBooked() {
+        when(bookingRepository.findIntervalsInRange(1L, BookingIntervalIndex.ACTIVE_STATUSES, from, to))
+                .thenReturn(List.of(new BookingInterval(1L, from.minusDays(1), to.plusDays(1))));
+
+        assertEquals(List.of(), itemAvailabilityResolver.freeSlots(1L, from, to));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.booking.service.LastAndNextBookingsCache;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LastAndNextBookingsCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LastAndNextBookingsCache cache = new LastAndNextBookingsCache(meterRegistry, 2);
+    private final LocalDateTime now = LocalDateTime.now();
+    private final LastAndNextBookingDto bookings = new LastAndNextBookingDto(
+            new BookingDtoForItem(1L, 2L), new BookingDtoForItem(3L, 2L));
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.counter("shareit.booking.last-next-cache." + name, tag, value).count();
+    }
+
+    @Test
+    void hitAndMiss() {
+        assertNull(cache.get(1L, now));
+
+        cache.put(1L, bookings, now.plusHours(1));
+
+        assertEquals(bookings, cache.get(1L, now));
+        assertEquals(1, count("requests", "result", "hit"));
+        assertEquals(1, count("requests", "result", "miss"));
+    }
+
+    @Test
+    void expiresWhenNextBookingStarts() {
+        cache.put(1L, bookings, now.plusHours(1));
+        cache.put(2L, LastAndNextBookingDto.EMPTY, null);
+
+        assertEquals(bookings, cache.get(1L, now.plusMinutes(59)));
+        assertNull(cache.get(1L, now.plusHours(1)));
+        assertEquals(LastAndNextBookingDto.EMPTY, cache.get(2L, now.plusYears(1)));
+        assertEquals(1, count("evictions", "cause", "expired"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        cache.put(1L, bookings, null);
+        cache.put(2L, bookings, null);
+        cache.get(1L, now);
+        cache.put(3L, bookings, null);
+
+        assertEquals(2, cache.size());
+        assertEquals(bookings, cache.get(1L, now));
+        assertNull(cache.get(2L, now));
+        assertEquals(1, count("evictions", "cause", "size"));
+    }
+
+    @Test
+    void invalidate() {
+        cache.put(1L, bookings, null);
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L, now));
+        assertEquals(1, count("evictions", "cause", "invalidated"));
+    }
+
+    @Test
+    void nonPositiveSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LastAndNextBookingsCache(meterRegistry, 0));
+    }
+}
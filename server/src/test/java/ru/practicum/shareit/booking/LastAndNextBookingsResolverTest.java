@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.LastAndNextBookingsCache;
+import ru.practicum.shareit.booking.service.LastAndNextBookingsResolver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LastAndNextBookingsResolverTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private final LastAndNextBookingsCache cache = new LastAndNextBookingsCache(new SimpleMeterRegistry(), 10);
+
+    private LastAndNextBookingsResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new LastAndNextBookingsResolver(bookingRepository, cache);
+    }
+
+    @Test
+    void forItemCachesPair() {
+        when(bookingRepository.findLastForItem(eq(1L), any())).thenReturn(Optional.empty());
+        when(bookingRepository.findNextForItem(eq(1L), any())).thenReturn(Optional.empty());
+
+        assertEquals(LastAndNextBookingDto.EMPTY, resolver.forItem(1L));
+        assertEquals(LastAndNextBookingDto.EMPTY, resolver.forItem(1L));
+
+        verify(bookingRepository, times(1)).findLastForItem(eq(1L), any());
+    }
+
+    @Test
+    void forItemDoesNotCachePairReadDuringChange() {
+        when(bookingRepository.findLastForItem(eq(1L), any())).thenAnswer(invocation -> {
+            cache.invalidate(1L);
+            return Optional.empty();
+        });
+        when(bookingRepository.findNextForItem(eq(1L), any())).thenReturn(Optional.empty());
+
+        resolver.forItem(1L);
+        resolver.forItem(1L);
+
+        verify(bookingRepository, times(2)).findLastForItem(eq(1L), any());
+    }
+
+    @Test
+    void forItemsDoesNotCachePairsReadDuringChange() {
+        when(bookingRepository.findLastAndNextForItems(eq(List.of(1L)), any())).thenAnswer(invocation -> {
+            cache.invalidate(1L);
+            return List.of();
+        });
+
+        assertEquals(Map.of(), resolver.forItems(List.of(1L)));
+        assertEquals(Map.of(), resolver.forItems(List.of(1L)));
+
+        verify(bookingRepository, times(2)).findLastAndNextForItems(eq(List.of(1L)), any());
+    }
+}
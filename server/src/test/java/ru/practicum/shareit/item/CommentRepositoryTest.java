@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.ItemCommentsLoader;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class CommentRepositoryTest {
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final User owner = new User(null, "Igor", "igor@gmail.dom", Collections.emptyList());
+    private final User author = new User(null, "Petr", "petr@gmail.dom", Collections.emptyList());
+    private final Item drill = new Item(null, "Дрель", "Ударная", true, owner, null, null);
+    private final Item saw = new Item(null, "Пила", "Ручная", true, owner, null, null);
+    private final Item tent = new Item(null, "Палатка", "Двухместная", true, owner, null, null);
+
+    private Comment comment(String text, Item item) {
+        return entityManager.persist(CommentMapper.toComment(text, author, item));
+    }
+
+    private Comment comment(String text, Item item, LocalDateTime createdAt) {
+        Comment comment = CommentMapper.toComment(text, author, item);
+        comment.setCreatedAt(createdAt);
+        return entityManager.persist(comment);
+    }
+
+    @Test
+    void findViewsByItemIdIn() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 10, 0);
+        entityManager.persist(owner);
+        entityManager.persist(author);
+        entityManager.persist(drill);
+        entityManager.persist(saw);
+        entityManager.persist(tent);
+        Comment first = comment("Мощная", drill, now);
+        Comment second = comment("Острая", saw, now.plusHours(1));
+        Comment earliest = comment("Шумная", drill, now.minusHours(1));
+        comment("Тёплая", tent);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentView> views = commentRepository.findViewsByItemIdIn(List.of(drill.getId(), saw.getId()));
+
+        assertEquals(List.of(earliest.getId(), first.getId(), second.getId()),
+                List.of(views.get(0).getId(), views.get(1).getId(), views.get(2).getId()));
+        assertEquals(drill.getId(), views.get(0).getItemId());
+        assertEquals(author.getName(), views.get(0).getAuthorName());
+        assertEquals("Шумная", views.get(0).getText());
+
+        Map<Long, List<CommentDto>> grouped = new ItemCommentsLoader(commentRepository)
+                .forItems(List.of(drill.getId(), saw.getId()));
+        assertEquals(2, grouped.get(drill.getId()).size());
+        assertEquals(1, grouped.get(saw.getId()).size());
+        assertFalse(grouped.containsKey(tent.getId()));
+    }
+
+    @Test
+    void findNewestViewsByItemIdWithCursor() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 10, 0);
+        entityManager.persist(owner);
+        entityManager.persist(author);
+        entityManager.persist(drill);
+        entityManager.persist(saw);
+        Comment oldest = comment("Мощная", drill, now.minusDays(1));
+        Comment sameTimeFirst = comment("Шумная", drill, now);
+        Comment sameTimeSecond = comment("Тяжёлая", drill, now);
+        comment("Острая", saw, now.plusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CommentView> firstPage = commentRepository.findNewestViewsByItemId(drill.getId(), PageRequest.of(0, 2));
+        CommentView last = firstPage.get(1);
+        List<CommentView> secondPage = commentRepository.findNewestViewsByItemIdAfterCursor(drill.getId(),
+                last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+
+        assertEquals(List.of(sameTimeSecond.getId(), sameTimeFirst.getId()),
+                List.of(firstPage.get(0).getId(), firstPage.get(1).getId()));
+        assertEquals(1, secondPage.size());
+        assertEquals(oldest.getId(), secondPage.get(0).getId());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.IndexItemSearcher;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexItemSearcherTest {
+    @InjectMocks
+    private IndexItemSearcher indexItemSearcher;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private static Item item(long id) {
+        return new Item(id, "Дрель", "Описание", true, null, null, null);
+    }
+
+    @Test
+    void loadsFoundItemsInIdOrder() {
+        when(itemSearchIndex.search("дрель", 20, 10)).thenReturn(List.of(3L, 7L));
+        when(itemRepository.findAllById(List.of(3L, 7L))).thenReturn(List.of(item(7L), item(3L)));
+
+        List<Item> items = indexItemSearcher.search("дрель", PageRequest.of(2, 10));
+
+        assertEquals(List.of(3L, 7L), List.of(items.get(0).getId(), items.get(1).getId()));
+    }
+
+    @Test
+    void loadsItemsInRelevanceOrder() {
+        when(itemSearchIndex.searchByRelevance("дрель", 0, 10)).thenReturn(List.of(7L, 3L));
+        when(itemRepository.findAllById(List.of(7L, 3L))).thenReturn(List.of(item(3L), item(7L)));
+
+        List<Item> items = indexItemSearcher.searchByRelevance("дрель", PageRequest.of(0, 10));
+
+        assertEquals(List.of(7L, 3L), List.of(items.get(0).getId(), items.get(1).getId()));
+    }
+
+    @Test
+    void nothingFound() {
+        when(itemSearchIndex.search("дрель", 0, 10)).thenReturn(List.of());
+
+        assertTrue(indexItemSearcher.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void savedItemIsIndexed() {
+        Item item = item(1L);
+
+        indexItemSearcher.itemSaved(item);
+
+        verify(itemSearchIndex).index(item);
+    }
+}
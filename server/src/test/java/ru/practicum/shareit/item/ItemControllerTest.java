@@ -11,10 +11,15 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
 import ru.practicum.shareit.item.dto.OutcomingItemDto;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.SearchSort;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CursorPage;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -24,8 +29,10 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,7 +64,8 @@ class ItemControllerTest {
             true,
             null,
             null,
-            Collections.emptyList());
+            Collections.emptyList(),
+            0);
 
     private final UserDto userDto = new UserDto(
             1L,
@@ -94,7 +102,7 @@ class ItemControllerTest {
 
     @Test
     void getAllItemsByUserId() throws Exception {
-        when(itemService.getByUserId(anyLong(), anyInt(), anyInt())).thenReturn(List.of(outcomingItemDto));
+        when(itemService.getByUserId(anyLong(), anyInt(), anyInt(), isNull())).thenReturn(List.of(outcomingItemDto));
 
         mvc.perform(get("/items")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -115,7 +123,7 @@ class ItemControllerTest {
 
     @Test
     void addComment() throws Exception {
-        when(itemService.getByItemId(anyLong(), anyLong())).thenReturn(outcomingItemDto);
+        when(itemService.getByItemId(anyLong(), anyLong(), isNull())).thenReturn(outcomingItemDto);
         when(itemService.addComment(anyString(), anyLong(), anyLong())).thenReturn(commentDto);
 
         mvc.perform(post("/items/{id}/comment", "1")
@@ -132,7 +140,7 @@ class ItemControllerTest {
 
     @Test
     void getItemById() throws Exception {
-        when(itemService.getByItemId(anyLong(), anyLong())).thenReturn(outcomingItemDto);
+        when(itemService.getByItemId(anyLong(), anyLong(), isNull())).thenReturn(outcomingItemDto);
 
         mvc.perform(get("/items/{id}", "1")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -145,12 +153,13 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(outcomingItemDto.getAvailable())))
                 .andExpect(jsonPath("$.lastBooking", is(outcomingItemDto.getLastBooking())))
                 .andExpect(jsonPath("$.nextBooking", is(outcomingItemDto.getNextBooking())))
-                .andExpect(jsonPath("$.comments", hasSize(0)));
+                .andExpect(jsonPath("$.comments", hasSize(0)))
+                .andExpect(jsonPath("$.commentsCount", is(0)));
     }
 
     @Test
     void getItemByText() throws Exception {
-        when(itemService.searchInNameOrDescription(anyString(), anyInt(), anyInt())).thenReturn(List.of(itemDto));
+        when(itemService.searchInNameOrDescription("text", 0, 10, SearchSort.ID)).thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -184,4 +193,126 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.available", is(itemDto.getAvailable())))
                 .andExpect(jsonPath("$.requestId", is(itemDto.getRequestId()), Long.class));
     }
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(7);
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new TimeSlotDto(from, from.plusDays(1)), new TimeSlotDto(from.plusDays(3), to)));
+
+        mvc.perform(get("/items/{id}/availability", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-02T10:00:00")))
+                .andExpect(jsonPath("$[1].start", is("2030-01-04T10:00:00")))
+                .andExpect(jsonPath("$[1].end", is("2030-01-08T10:00:00")));
+    }
+
+    @Test
+    void getItemByTextSortedByRelevance() throws Exception {
+        when(itemService.searchInNameOrDescription("text", 0, 10, SearchSort.RELEVANCE)).thenReturn(List.of(itemDto));
+
+        mvc.perform(get("/items/search")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("text", "text")
+                        .param("sort", "RELEVANCE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(itemDto.getId()), Long.class));
+    }
+
+    @Test
+    void suggest() throws Exception {
+        when(itemService.suggest("дре", 3)).thenReturn(List.of("дрель", "дрель ударная"));
+
+        mvc.perform(get("/items/suggest")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("prefix", "дре")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("дрель")))
+                .andExpect(jsonPath("$[1]", is("дрель ударная")));
+    }
+
+    @Test
+    void getItemWithLatestComments() throws Exception {
+        OutcomingItemDto withComments = new OutcomingItemDto(1L, "Какая-то вещь", "Какое-то описание", true,
+                null, null, List.of(commentDto), 5);
+        when(itemService.getByItemId(1L, 1L, 1)).thenReturn(withComments);
+
+        mvc.perform(get("/items/{id}", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("commentsLimit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(1)))
+                .andExpect(jsonPath("$.commentsCount", is(5)));
+    }
+
+    @Test
+    void getItemWithNegativeCommentsLimit() throws Exception {
+        mvc.perform(get("/items/{id}", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("commentsLimit", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void getCommentsPage() throws Exception {
+        when(itemService.getComments(1L, "abc", 1)).thenReturn(new CursorPage<>(List.of(commentDto), "def"));
+
+        mvc.perform(get("/items/{id}/comments", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "1")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(commentDto.getId()), Long.class));
+    }
+
+    @Test
+    void getLastCommentsPage() throws Exception {
+        when(itemService.getComments(1L, null, 10)).thenReturn(new CursorPage<>(List.of(commentDto), null));
+
+        mvc.perform(get("/items/{id}/comments", "1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void importItems() throws Exception {
+        ItemImportResultDto result = new ItemImportResultDto(1, 1, 5, 200, List.of(
+                new ItemImportRowDto(1, ItemImportRowDto.Outcome.CREATED, 1L, null),
+                new ItemImportRowDto(2, ItemImportRowDto.Outcome.INVALID, null, "Название вещи не может быть пустым")));
+        when(itemService.importItems(eq(1L), any())).thenReturn(result);
+
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(itemDto) + "\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rows", hasSize(2)))
+                .andExpect(jsonPath("$.rows[0].outcome", is("CREATED")))
+                .andExpect(jsonPath("$.rows[1].error", is("Название вещи не может быть пустым")));
+    }
 }
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDetails;
+import ru.practicum.shareit.item.service.ItemDetailsCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemDetailsCacheTest {
+    private final ItemDetailsCache cache = new ItemDetailsCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(10));
+    private final ItemDetails details = new ItemDetails(1L, "Дрель", "Ударная", true, 2L, List.of());
+
+    @Test
+    void detailsLiveForTimeToLive() {
+        cache.put(1L, details, cache.version());
+
+        assertEquals(details, cache.get(1L));
+        assertEquals(details, cache.get(1L, LocalDateTime.now().plusMinutes(9)));
+        assertNull(cache.get(1L, LocalDateTime.now().plusMinutes(11)));
+    }
+
+    @Test
+    void detailsReadBeforeInvalidationAreNotCached() {
+        long version = cache.version();
+        cache.invalidate(1L);
+
+        cache.put(1L, details, version);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void nonPositiveTimeToLiveIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ItemDetailsCache(new SimpleMeterRegistry(), 10, Duration.ZERO));
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemImportRowDto;
+import ru.practicum.shareit.item.dto.OutcomingItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.SearchSort;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit.item.import.chunk-size=2", "shareit.outbox.poll-interval=PT1H"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class ItemImporterIntegrationTest {
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxRepository outboxRepository;
+
+    private final UserDto userDto = new UserDto(
+            null,
+            "Igor",
+            "igor@gmail.dom");
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<ItemImportRowDto.Outcome> outcomes(ItemImportResultDto result) {
+        return result.getRows().stream()
+                .map(ItemImportRowDto::getOutcome)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void importJsonArrayInChunks() {
+        UserDto owner = userService.add(userDto);
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), body("[" +
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}," +
+                "{\"name\": \"\", \"description\": \"Без названия\", \"available\": true}," +
+                "{\"name\": \"Пила\", \"description\": \"Ручная\", \"available\": true}," +
+                "{\"name\": \"Палатка\", \"description\": \"Двухместная\", \"available\": false}]"));
+
+        assertEquals(3, result.getCreated());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of(ItemImportRowDto.Outcome.CREATED, ItemImportRowDto.Outcome.INVALID,
+                ItemImportRowDto.Outcome.CREATED, ItemImportRowDto.Outcome.CREATED), outcomes(result));
+        assertEquals(List.of(1, 2, 3, 4), result.getRows().stream()
+                .map(ItemImportRowDto::getRow)
+                .collect(Collectors.toList()));
+        assertNotNull(result.getRows().get(1).getError());
+        assertEquals(3, itemService.getByUserId(owner.getId(), 0, 10, null).size());
+        assertEquals(3, outboxRepository.findAll().stream()
+                .filter(message -> message.getAggregateType() == AggregateType.ITEM &&
+                        message.getChangeType() == ChangeType.CREATED)
+                .count());
+        assertEquals(1, itemService.searchInNameOrDescription("пила", 0, 10, SearchSort.ID).size());
+        assertEquals(List.of("дрель"), itemService.suggest("др", 10));
+    }
+
+    @Test
+    void importNdjsonWithMalformedRow() {
+        UserDto owner = userService.add(userDto);
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), body(
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}\n" +
+                        "{\"name\": \"Пила\", \"description\": \"Ручная\", \"available\": \"иногда\"}\n" +
+                        "{\"name\": \"Палатка\", \"description\": \"Двухместная\", \"available\": true}\n"));
+
+        assertEquals(List.of(ItemImportRowDto.Outcome.CREATED, ItemImportRowDto.Outcome.INVALID,
+                ItemImportRowDto.Outcome.CREATED), outcomes(result));
+        List<String> names = itemService.getByUserId(owner.getId(), 0, 10, null).stream()
+                .map(OutcomingItemDto::getName)
+                .collect(Collectors.toList());
+        assertEquals(List.of("Дрель", "Палатка"), names);
+    }
+
+    @Test
+    void brokenJsonStopsImport() {
+        UserDto owner = userService.add(userDto);
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), body(
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}\n" +
+                        "{\"name\": \"Пила\", \"description\n"));
+
+        assertEquals(List.of(ItemImportRowDto.Outcome.CREATED, ItemImportRowDto.Outcome.INVALID), outcomes(result));
+        assertEquals(1, itemService.getByUserId(owner.getId(), 0, 10, null).size());
+    }
+
+    @Test
+    void chunkFailingToFlushDoesNotStopImport() {
+        UserDto owner = userService.add(userDto);
+        String tooLong = "Ударная".repeat(100);
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(), body(
+                "{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true}\n" +
+                        "{\"name\": \"Пила\", \"description\": \"Ручная\", \"available\": true}\n" +
+                        "{\"name\": \"Перфоратор\", \"description\": \"" + tooLong + "\", \"available\": true}\n" +
+                        "{\"name\": \"Лобзик\", \"description\": \"Электрический\", \"available\": true}\n" +
+                        "{\"name\": \"Палатка\", \"description\": \"Двухместная\", \"available\": true}\n"));
+
+        assertEquals(List.of(ItemImportRowDto.Outcome.CREATED, ItemImportRowDto.Outcome.CREATED,
+                ItemImportRowDto.Outcome.FAILED, ItemImportRowDto.Outcome.FAILED,
+                ItemImportRowDto.Outcome.CREATED), outcomes(result));
+        assertNotNull(result.getRows().get(2).getError());
+        assertEquals(3, itemService.getByUserId(owner.getId(), 0, 10, null).size());
+    }
+
+    @Test
+    void importForUnknownOwner() {
+        assertThrows(UserNotFoundException.class,
+                () -> itemService.importItems(999L, body("[]")));
+    }
+
+    @Test
+    void importedItemGetsGeneratedId() {
+        UserDto owner = userService.add(userDto);
+        ItemDto existing = itemService.add(new ItemDto(null, "Пила", "Ручная", true, null), owner.getId());
+
+        ItemImportResultDto result = itemService.importItems(owner.getId(),
+                body("[{\"name\": \"Дрель\", \"description\": \"Ударная\", \"available\": true, \"requestId\": 7}]"));
+
+        Long itemId = result.getRows().get(0).getItemId();
+        OutcomingItemDto imported = itemService.getByItemId(itemId, owner.getId(), null);
+        assertEquals(existing.getId() + 1, itemId);
+        assertEquals("Дрель", imported.getName());
+        assertEquals(2, itemService.getByUserId(owner.getId(), 0, 10, null).size());
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemTextView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -89,4 +90,31 @@ class ItemRepositoryTest {
         assertEquals(user.getName(), found.get(0).getOwner().getName());
         assertEquals(user.getEmail(), found.get(0).getOwner().getEmail());
     }
+
+    @Test
+    void findAllAvailableTexts() {
+        entityManager.persist(item);
+        entityManager.persist(new Item(null, "Недоступная вещь", "Описание", false, user, null, null));
+        entityManager.flush();
+
+        List<ItemTextView> texts = itemRepository.findAllAvailableTexts();
+
+        assertEquals(1, texts.size());
+        assertEquals(item.getId(), texts.get(0).getId());
+        assertEquals(item.getName(), texts.get(0).getName());
+        assertEquals(item.getDescription(), texts.get(0).getDescription());
+    }
+
+    @Test
+    void searchByRelevance() {
+        Item inDescription = new Item(null, "Набор", "Какая-то вещь в наборе", true, user, null, null);
+        entityManager.persist(inDescription);
+        entityManager.persist(item);
+        entityManager.flush();
+
+        List<Item> found = itemRepository.searchByRelevance("какая-то вещь", PageRequest.of(0, 10));
+
+        assertEquals(List.of(item.getId(), inDescription.getId()),
+                List.of(found.get(0).getId(), found.get(1).getId()));
+    }
 }
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemTextView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the in-memory index with a LIKE-style scan on 1M items. The database side of
+ * the comparison is server/benchmark/item_search.sql. Run with {@code mvn test -Dbenchmark=true}.
+ */
+@Slf4j
+@ExtendWith(MockitoExtension.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSearchBenchmarkTest {
+    private static final int ITEMS = 1_000_000;
+    private static final int ROUNDS = 50;
+    private static final String QUERY = "дрель";
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Test
+    void indexAgainstScan() {
+        List<ItemTextView> views = new ArrayList<>(ITEMS);
+        for (long id = 1; id <= ITEMS; id++) {
+            String name = id % 10_000 == 0 ? "Дрель ударная " + id : "Вещь " + UUID.randomUUID();
+            views.add(new TestItemTextView(id, name, "Описание " + UUID.randomUUID() + " " + UUID.randomUUID()));
+        }
+        when(itemRepository.findAllAvailableTexts()).thenReturn(views);
+
+        long buildStart = System.nanoTime();
+        itemSearchIndex.rebuild();
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<Long> fromIndex = List.of();
+        long indexStart = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            fromIndex = itemSearchIndex.search(QUERY, 0, 20);
+        }
+        long indexMicros = (System.nanoTime() - indexStart) / 1_000 / ROUNDS;
+
+        List<Long> fromScan = List.of();
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            fromScan = scan(views, QUERY, 20);
+        }
+        long scanMicros = (System.nanoTime() - scanStart) / 1_000 / ROUNDS;
+
+        log.info("Построение: {} мс, индекс: {} мкс/запрос, перебор: {} мкс/запрос", buildMillis, indexMicros, scanMicros);
+        assertEquals(fromScan, fromIndex);
+        assertTrue(indexMicros < scanMicros, indexMicros + " мкс/запрос по индексу против " + scanMicros + " перебором");
+    }
+
+    private static List<Long> scan(List<ItemTextView> views, String text, int limit) {
+        String query = text.toUpperCase(Locale.ROOT);
+        List<Long> result = new ArrayList<>(limit);
+        for (ItemTextView view : views) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (view.getName().toUpperCase(Locale.ROOT).contains(query) ||
+                    view.getDescription().toUpperCase(Locale.ROOT).contains(query)) {
+                result.add(view.getId());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.SearchSort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchCacheTest {
+    private final ItemSearchCache cache = new ItemSearchCache(new SimpleMeterRegistry(), DataSize.ofKilobytes(1));
+    private final ItemDto drill = new ItemDto(1L, "Дрель", "Ударная дрель", true, null);
+    private final ItemSearchCache.Key drillKey = ItemSearchCache.key("дрель", SearchSort.ID, 0, 10);
+    private final ItemSearchCache.Key tentKey = ItemSearchCache.key("палатка", SearchSort.ID, 0, 10);
+
+    private static Item item(String name, String description, boolean available) {
+        return new Item(1L, name, description, available, null, null, null);
+    }
+
+    @Test
+    void keyIsCaseInsensitive() {
+        cache.put(drillKey, List.of(drill), cache.version());
+
+        assertEquals(List.of(drill), cache.get(ItemSearchCache.key("ДРЕЛЬ", SearchSort.ID, 0, 10)));
+        assertNull(cache.get(ItemSearchCache.key("дрель", SearchSort.ID, 10, 10)));
+        assertNull(cache.get(ItemSearchCache.key("дрель", SearchSort.RELEVANCE, 0, 10)));
+    }
+
+    @Test
+    void onlyMatchingQueriesAreInvalidated() {
+        cache.put(drillKey, List.of(drill), cache.version());
+        cache.put(tentKey, List.of(), cache.version());
+
+        cache.itemChanged(null, item("Новая дрель", "Описание", true));
+
+        assertNull(cache.get(drillKey));
+        assertNotNull(cache.get(tentKey));
+    }
+
+    @Test
+    void oldTextIsInvalidatedOnEdit() {
+        cache.put(drillKey, List.of(drill), cache.version());
+
+        cache.itemChanged(item("Дрель", "Описание", true), item("Пила", "Описание", true));
+
+        assertNull(cache.get(drillKey));
+    }
+
+    @Test
+    void unavailableItemsDoNotInvalidate() {
+        cache.put(drillKey, List.of(), cache.version());
+
+        cache.itemChanged(item("Дрель", "Описание", false), item("Дрель", "Новое описание", false));
+
+        assertNotNull(cache.get(drillKey));
+    }
+
+    @Test
+    void resultsReadBeforeInvalidationAreNotCached() {
+        long version = cache.version();
+        cache.itemChanged(null, item("Пила", "Описание", true));
+
+        cache.put(drillKey, List.of(drill), version);
+
+        assertNull(cache.get(drillKey));
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvictedWhenFull() {
+        for (int i = 0; i < 20; i++) {
+            cache.put(ItemSearchCache.key("запрос " + i, 0, 10), List.of(drill), cache.version());
+        }
+
+        assertTrue(cache.usedBytes() <= DataSize.ofKilobytes(1).toBytes());
+        assertNull(cache.get(ItemSearchCache.key("запрос 0", SearchSort.ID, 0, 10)));
+        assertNotNull(cache.get(ItemSearchCache.key("запрос 19", SearchSort.ID, 0, 10)));
+    }
+
+    @Test
+    void createdItemsInvalidateInOnePass() {
+        cache.put(drillKey, List.of(drill), cache.version());
+        cache.put(tentKey, List.of(), cache.version());
+
+        cache.itemsCreated(List.of(item("Пила", "Ручная", true), item("Палатка", "Двухместная", true),
+                item("Дрель", "Скрытая", false)));
+
+        assertNotNull(cache.get(drillKey));
+        assertNull(cache.get(tentKey));
+    }
+}
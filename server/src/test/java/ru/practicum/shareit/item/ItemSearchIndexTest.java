@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private static Item item(long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, null, null, null);
+    }
+
+    @BeforeEach
+    void setup() {
+        when(itemRepository.findAllAvailableTexts()).thenReturn(List.of(
+                new TestItemTextView(1L, "Дрель", "Простая дрель"),
+                new TestItemTextView(2L, "Отвертка", "Аккумуляторная отвертка"),
+                new TestItemTextView(3L, "Дрель ударная", "Мощная")));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchIsCaseInsensitiveSubstringMatch() {
+        assertEquals(List.of(1L, 3L), itemSearchIndex.search("дРЕль", 0, 10));
+        assertEquals(List.of(2L), itemSearchIndex.search("кумул", 0, 10));
+        assertEquals(List.of(3L), itemSearchIndex.search("щн", 0, 10));
+        assertEquals(List.of(), itemSearchIndex.search("пила", 0, 10));
+    }
+
+    @Test
+    void substringMustBeContiguous() {
+        assertEquals(List.of(), itemSearchIndex.search("рельдр", 0, 10));
+        assertEquals(List.of(3L), itemSearchIndex.search("ль уд", 0, 10));
+    }
+
+    @Test
+    void searchWithOffsetAndLimit() {
+        assertEquals(List.of(1L), itemSearchIndex.search("р", 0, 1));
+        assertEquals(List.of(2L, 3L), itemSearchIndex.search("р", 1, 10));
+        assertEquals(List.of(), itemSearchIndex.search("р", 3, 10));
+    }
+
+    @Test
+    void searchWithHugeLimit() {
+        assertEquals(List.of(1L, 2L, 3L), itemSearchIndex.search("р", 0, Integer.MAX_VALUE));
+        assertEquals(List.of(), itemSearchIndex.search("р", Integer.MAX_VALUE, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void nameHitsRankAboveDescriptionHits() {
+        itemSearchIndex.index(item(4L, "Набор", "Дрель, дрель и ещё раз дрель", true));
+
+        assertEquals(List.of(1L, 3L, 4L), itemSearchIndex.searchByRelevance("дрель", 0, 10));
+        assertEquals(List.of(3L, 4L), itemSearchIndex.searchByRelevance("дрель", 1, 2));
+        assertEquals(List.of(), itemSearchIndex.searchByRelevance("дрель", 3, 10));
+    }
+
+    @Test
+    void searchByRelevanceWithHugePage() {
+        assertEquals(List.of(1L, 3L), itemSearchIndex.searchByRelevance("дрель", 0, Integer.MAX_VALUE));
+        assertEquals(List.of(3L), itemSearchIndex.searchByRelevance("дрель", 1, Integer.MAX_VALUE));
+        assertEquals(List.of(), itemSearchIndex.searchByRelevance("дрель", Integer.MAX_VALUE, 10));
+    }
+
+    @Test
+    void indexReplacesAndRemovesItems() {
+        itemSearchIndex.index(item(1L, "Пила", "Ручная пила", true));
+        itemSearchIndex.index(item(3L, "Дрель ударная", "Мощная", false));
+        itemSearchIndex.index(item(4L, "Лобзик", "Пила для фигурной резки", true));
+
+        assertEquals(List.of(), itemSearchIndex.search("дрель", 0, 10));
+        assertEquals(List.of(1L, 4L), itemSearchIndex.search("пила", 0, 10));
+    }
+}
@@ -89,7 +89,7 @@ class ItemServiceIntegrationTest {
     void getItemByWrongItemId() {
         Long id = 2L;
 
-        assertThrows(ItemNotFoundException.class, () -> itemService.getByItemId(id, id));
+        assertThrows(ItemNotFoundException.class, () -> itemService.getByItemId(id, id, null));
     }
 
     @Test
@@ -5,27 +5,48 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.service.BookingsGetter;
-import ru.practicum.shareit.booking.service.State;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.CommentEligibilityView;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemAvailabilityResolver;
+import ru.practicum.shareit.booking.service.LastAndNextBookingsResolver;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.exception.UserHasNoPermissionException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCommentsLoader;
+import ru.practicum.shareit.item.service.ItemDetailsCache;
+import ru.practicum.shareit.item.service.ItemImporter;
+import ru.practicum.shareit.item.service.ItemSearchCache;
+import ru.practicum.shareit.item.service.ItemSearcher;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.SearchSort;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
 import ru.practicum.shareit.user.UserChecker;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoForBooking;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.CursorPage;
+import ru.practicum.shareit.util.KeysetCursor;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,7 +71,34 @@ class ItemServiceTest {
     private UserChecker userChecker;
 
     @Mock
-    private BookingsGetter bookingsGetter;
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private LastAndNextBookingsResolver lastAndNextBookingsResolver;
+
+    @Mock
+    private ItemAvailabilityResolver itemAvailabilityResolver;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private ItemSearcher itemSearcher;
+
+    @Mock
+    private ItemSearchCache itemSearchCache;
+
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @Mock
+    private ItemDetailsCache itemDetailsCache;
+
+    @Mock
+    private ItemCommentsLoader itemCommentsLoader;
+
+    @Mock
+    private ItemImporter itemImporter;
 
     private final UserDto userDto = new UserDto(
             1L,
@@ -96,14 +144,6 @@ class ItemServiceTest {
 
     private final ItemDtoForBooking itemDtoForBooking = new ItemDtoForBooking(1L, "Какая-то вещь");
 
-    private final Booking booking = new Booking(
-            1L,
-            LocalDateTime.now(),
-            LocalDateTime.now(),
-            item,
-            user,
-            Booking.Status.WAITING);
-
     @Test
     void addItem() {
         when(userChecker.getIfExists(anyLong(), any())).thenReturn(item);
@@ -115,27 +155,44 @@ class ItemServiceTest {
         assertEquals(1, createdItem.getId());
         assertEquals(itemDtoForBooking.getName(), createdItem.getName());
         assertTrue(createdItem.getAvailable());
+        verify(itemSearcher).itemSaved(item);
+        verify(itemSearchCache).itemChanged(null, item);
+        verify(itemSuggestIndex).itemSaved(item);
+    }
+
+    @Test
+    void importItems() {
+        InputStream items = new ByteArrayInputStream(new byte[0]);
+        ItemImportResultDto result = new ItemImportResultDto(0, 0, 0, 0, List.of());
+        when(itemImporter.importItems(1L, items)).thenReturn(result);
+
+        assertEquals(result, itemService.importItems(1L, items));
     }
 
     @Test
     void getByItemIdAndUserId() {
+        BookingDtoForItem lastBooking = new BookingDtoForItem(1L, 2L);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingsGetter.forItemOwner(anyCollection(), any(State.class), any(Pageable.class))).thenReturn(List.of(booking));
+        when(lastAndNextBookingsResolver.forItem(1L)).thenReturn(new LastAndNextBookingDto(lastBooking, null));
 
-        OutcomingItemDto itemById = itemService.getByItemId(1L, 1L);
+        OutcomingItemDto itemById = itemService.getByItemId(1L, 1L, null);
 
         assertNotNull(itemById);
         assertEquals(1, itemById.getId());
         assertEquals(itemDtoForBooking.getName(), itemById.getName());
         assertTrue(itemById.getAvailable());
+        assertEquals(lastBooking, itemById.getLastBooking());
+        assertNull(itemById.getNextBooking());
         assertEquals(0, itemById.getComments().size());
+
+        verify(lastAndNextBookingsResolver).forItem(1L);
     }
 
     @Test
     void getByItemIdAndUserIdWithoutBookings() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
-        OutcomingItemDto itemById = itemService.getByItemId(1L, 2L);
+        OutcomingItemDto itemById = itemService.getByItemId(1L, 2L, null);
 
         assertNotNull(itemById);
         assertEquals(1, itemById.getId());
@@ -144,13 +201,38 @@ class ItemServiceTest {
         assertNull(itemById.getLastBooking());
         assertNull(itemById.getNextBooking());
         assertEquals(0, itemById.getComments().size());
+
+        verifyNoInteractions(lastAndNextBookingsResolver);
+    }
+
+    @Test
+    void getByItemIdCachesDetails() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemDetailsCache.version()).thenReturn(3L);
+
+        itemService.getByItemId(1L, 2L, null);
+
+        verify(itemDetailsCache).put(1L, ItemMapper.toItemDetails(item, List.of()), 3L);
+    }
+
+    @Test
+    void getByItemIdFromCachedDetails() {
+        BookingDtoForItem nextBooking = new BookingDtoForItem(2L, 2L);
+        when(itemDetailsCache.get(1L)).thenReturn(ItemMapper.toItemDetails(item, List.of()));
+        when(lastAndNextBookingsResolver.forItem(1L)).thenReturn(new LastAndNextBookingDto(null, nextBooking));
+
+        OutcomingItemDto itemById = itemService.getByItemId(1L, user.getId(), null);
+
+        assertEquals(item.getName(), itemById.getName());
+        assertEquals(nextBooking, itemById.getNextBooking());
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void getAllItemsByUserId() {
         when(userChecker.getIfExists(anyLong(), any())).thenReturn(List.of(item));
 
-        List<OutcomingItemDto> items = new ArrayList<>(itemService.getByUserId(1L, 0, 1));
+        List<OutcomingItemDto> items = new ArrayList<>(itemService.getByUserId(1L, 0, 1, null));
 
         assertEquals(items.size(), 1);
         assertEquals(1, items.get(0).getId());
@@ -159,11 +241,87 @@ class ItemServiceTest {
         assertEquals(0, items.get(0).getComments().size());
     }
 
+    @Test
+    void getAllItemsByUserIdWithComments() {
+        CommentDto itemComment = new CommentDto(1L, "Отличная вещь", "Petr", LocalDateTime.now());
+        when(userChecker.getIfExists(anyLong(), any())).thenReturn(List.of(item));
+        when(itemCommentsLoader.forItems(List.of(item.getId()))).thenReturn(Map.of(item.getId(), List.of(itemComment)));
+
+        List<OutcomingItemDto> items = new ArrayList<>(itemService.getByUserId(1L, 0, 1, null));
+
+        assertEquals(List.of(itemComment), items.get(0).getComments());
+    }
+
+    @Test
+    void getAllItemsByUserIdWithLatestComments() {
+        CommentDto first = new CommentDto(1L, "Отличная вещь", "Petr", LocalDateTime.now().minusDays(1));
+        CommentDto second = new CommentDto(2L, "Так себе", "Ivan", LocalDateTime.now());
+        when(userChecker.getIfExists(anyLong(), any())).thenReturn(List.of(item));
+        when(itemCommentsLoader.forItems(List.of(item.getId()))).thenReturn(Map.of(item.getId(), List.of(first, second)));
+
+        List<OutcomingItemDto> items = new ArrayList<>(itemService.getByUserId(1L, 0, 1, 1));
+
+        assertEquals(List.of(second), items.get(0).getComments());
+        assertEquals(2, items.get(0).getCommentsCount());
+    }
+
+    @Test
+    void getFirstCommentsPage() {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 10, 0);
+        CommentView newest = commentView(3L, created);
+        CommentView older = commentView(2L, created);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findNewestViewsByItemId(1L, PageRequest.of(0, 2)))
+                .thenReturn(new ArrayList<>(List.of(newest, older)));
+
+        CursorPage<CommentDto> page = itemService.getComments(1L, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(3L, page.getItems().get(0).getId());
+        assertEquals(new KeysetCursor(created, 3L), KeysetCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getCommentsPageAfterCursor() {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findNewestViewsByItemIdAfterCursor(1L, created, 3L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(commentView(2L, created)));
+
+        CursorPage<CommentDto> page = itemService.getComments(1L, new KeysetCursor(created, 3L).encode(), 1);
+
+        assertEquals(2L, page.getItems().get(0).getId());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getCommentsOfUnknownItem() {
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.getComments(1L, null, 10));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void getAllItemsByUserIdWithBookings() {
+        BookingDtoForItem lastBooking = new BookingDtoForItem(1L, 2L);
+        BookingDtoForItem nextBooking = new BookingDtoForItem(2L, 2L);
+        when(userChecker.getIfExists(anyLong(), any())).thenReturn(List.of(item));
+        when(lastAndNextBookingsResolver.forItems(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), new LastAndNextBookingDto(lastBooking, nextBooking)));
+
+        List<OutcomingItemDto> items = new ArrayList<>(itemService.getByUserId(1L, 0, 1, null));
+
+        assertEquals(1, items.size());
+        assertEquals(lastBooking, items.get(0).getLastBooking());
+        assertEquals(nextBooking, items.get(0).getNextBooking());
+    }
+
     @Test
     void getAllItemsByText() {
-        when(itemRepository.search(anyString(), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemSearcher.search("Hello", PageRequest.of(0, 1))).thenReturn(List.of(item));
 
-        List<ItemDto> items = new ArrayList<>(itemService.searchInNameOrDescription("Hello", 0, 1));
+        List<ItemDto> items = new ArrayList<>(itemService.searchInNameOrDescription("Hello", 0, 1, SearchSort.ID));
 
         assertEquals(1, items.size());
         assertEquals(1, items.get(0).getId());
@@ -173,9 +331,56 @@ class ItemServiceTest {
 
     @Test
     void getAllItemsByEmptyText() {
-        List<ItemDto> items = new ArrayList<>(itemService.searchInNameOrDescription("", 0, 1));
+        List<ItemDto> items = new ArrayList<>(itemService.searchInNameOrDescription("", 0, 1, SearchSort.ID));
 
         assertTrue(items.isEmpty());
+        verifyNoInteractions(itemSearcher);
+    }
+
+    @Test
+    void searchResultsAreCached() {
+        ItemSearchCache.Key key = ItemSearchCache.key("Hello", SearchSort.ID, 0, 1);
+        when(itemSearchCache.get(key)).thenReturn(null);
+        when(itemSearchCache.version()).thenReturn(5L);
+        when(itemSearcher.search("Hello", PageRequest.of(0, 1))).thenReturn(List.of(item));
+
+        Collection<ItemDto> items = itemService.searchInNameOrDescription("Hello", 0, 1, SearchSort.ID);
+
+        verify(itemSearchCache).put(key, List.of(ItemMapper.toItemDto(item)), 5L);
+        assertEquals(1, items.size());
+    }
+
+    @Test
+    void suggest() {
+        when(itemSuggestIndex.suggest("дре", 5)).thenReturn(List.of("дрель"));
+
+        assertEquals(List.of("дрель"), itemService.suggest("дре", 5));
+    }
+
+    @Test
+    void searchByRelevance() {
+        when(itemSearcher.searchByRelevance("Hello", PageRequest.of(0, 1))).thenReturn(List.of(item));
+
+        Collection<ItemDto> items = itemService.searchInNameOrDescription("Hello", 0, 1, SearchSort.RELEVANCE);
+
+        assertEquals(List.of(ItemMapper.toItemDto(item)), items);
+        verify(itemSearcher, never()).search(any(), any());
+    }
+
+    @Test
+    void searchResultsFromCache() {
+        List<ItemDto> cached = List.of(ItemMapper.toItemDto(item));
+        when(itemSearchCache.get(ItemSearchCache.key("hello", SearchSort.ID, 0, 1))).thenReturn(cached);
+
+        assertEquals(cached, itemService.searchInNameOrDescription("hello", 0, 1, SearchSort.ID));
+        verifyNoInteractions(itemSearcher);
+    }
+
+    @Test
+    void searchPageIsAlignedToSize() {
+        when(itemSearcher.search("Hello", PageRequest.of(1, 10))).thenReturn(List.of());
+
+        assertTrue(itemService.searchInNameOrDescription("Hello", 15, 10, SearchSort.ID).isEmpty());
     }
 
     @Test
@@ -198,6 +403,10 @@ class ItemServiceTest {
         assertEquals(1, updatedItem.getId());
         assertEquals(newItem.getName(), updatedItem.getName());
         assertTrue(updatedItem.getAvailable());
+        verify(itemSearcher).itemSaved(newItem);
+        verify(itemSearchCache).itemChanged(argThat(before -> "Какая-то вещь".equals(before.getName())), eq(newItem));
+        verify(itemSuggestIndex).itemSaved(newItem);
+        verify(itemDetailsCache).invalidate(item.getId());
     }
 
     @Test
@@ -219,10 +428,11 @@ class ItemServiceTest {
 
     @Test
     void addComment() {
+        when(bookingRepository.findCommentEligibility(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(eligibility(true, true)));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(itemRepository.getReferenceById(1L)).thenReturn(item);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingsGetter.forUser(anyLong(), eq(State.PAST), eq(Pageable.unpaged()))).thenReturn(List.of(booking));
 
         CommentDto savedComment = itemService.addComment(commentDto.getText(), user.getId(), item.getId());
 
@@ -234,5 +444,120 @@ class ItemServiceTest {
 
         verify(commentRepository).save(any(Comment.class));
         verifyNoMoreInteractions(commentRepository);
+        verify(outbox).record(AggregateType.ITEM, item.getId(), ChangeType.UPDATED);
+        verify(itemDetailsCache).invalidate(item.getId());
+    }
+
+    @Test
+    void addCommentWithoutPastBooking() {
+        when(bookingRepository.findCommentEligibility(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(eligibility(true, false)));
+
+        assertThrows(UserHasNoPermissionException.class,
+                () -> itemService.addComment(commentDto.getText(), user.getId(), item.getId()));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void addCommentToNotExistingItem() {
+        when(bookingRepository.findCommentEligibility(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(eligibility(false, false)));
+
+        assertThrows(ItemNotFoundException.class,
+                () -> itemService.addComment(commentDto.getText(), user.getId(), item.getId()));
+    }
+
+    @Test
+    void addCommentByNotExistingUser() {
+        when(bookingRepository.findCommentEligibility(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class,
+                () -> itemService.addComment(commentDto.getText(), user.getId(), item.getId()));
+    }
+
+    private CommentEligibilityView eligibility(boolean itemExists, boolean bookedInPast) {
+        return new CommentEligibilityView() {
+            @Override
+            public String getAuthorName() {
+                return user.getName();
+            }
+
+            @Override
+            public Boolean getItemExists() {
+                return itemExists;
+            }
+
+            @Override
+            public Boolean getBookedInPast() {
+                return bookedInPast;
+            }
+        };
+    }
+
+    @Test
+    void getAvailability() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(7);
+        List<TimeSlotDto> slots = List.of(new TimeSlotDto(from, to));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemAvailabilityResolver.freeSlots(1L, from, to)).thenReturn(slots);
+
+        assertEquals(slots, itemService.getAvailability(1L, from, to));
+    }
+
+    @Test
+    void getAvailabilityOfNotAvailableItem() {
+        LocalDateTime from = LocalDateTime.now();
+        item.setAvailable(false);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertTrue(itemService.getAvailability(1L, from, from.plusDays(7)).isEmpty());
+        verifyNoInteractions(itemAvailabilityResolver);
+    }
+
+    @Test
+    void getAvailabilityForWrongPeriod() {
+        LocalDateTime from = LocalDateTime.now();
+
+        assertThrows(IllegalArgumentException.class, () -> itemService.getAvailability(1L, from, from));
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void getAvailabilityOfNotExistingItem() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ItemNotFoundException.class, () -> itemService.getAvailability(1L, from, from.plusDays(7)));
+    }
+
+    private CommentView commentView(long id, LocalDateTime createdAt) {
+        return new CommentView() {
+            @Override
+            public Long getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getText() {
+                return "Коммент";
+            }
+
+            @Override
+            public String getAuthorName() {
+                return user.getName();
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
     }
 }
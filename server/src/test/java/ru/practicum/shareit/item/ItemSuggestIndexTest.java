@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSuggestIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSuggestIndexTest {
+    @InjectMocks
+    private ItemSuggestIndex itemSuggestIndex;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private static Item item(long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, null, null, null);
+    }
+
+    @BeforeEach
+    void setup() {
+        when(itemRepository.findAllAvailableTexts()).thenReturn(List.of(
+                new TestItemTextView(1L, "Дрель  ударная", "Для бетона"),
+                new TestItemTextView(2L, "Дрель", "Простая, для дерева")));
+        itemSuggestIndex.rebuild();
+    }
+
+    @Test
+    void suggestNamesAndWordsByPrefix() {
+        assertEquals(List.of("дрель", "дрель ударная"), itemSuggestIndex.suggest("ДРЕ", 10));
+        assertEquals(List.of("дерева", "для"), itemSuggestIndex.suggest("д", 2));
+        assertEquals(List.of(), itemSuggestIndex.suggest("пила", 10));
+        assertEquals(List.of(), itemSuggestIndex.suggest("  ", 10));
+    }
+
+    @Test
+    void termsFollowItemChanges() {
+        itemSuggestIndex.itemSaved(item(3L, "Пила", "Ручная", true));
+        itemSuggestIndex.itemSaved(item(2L, "Дрель", "Простая, для дерева", false));
+
+        assertEquals(List.of("пила"), itemSuggestIndex.suggest("пи", 10));
+        assertEquals(List.of(), itemSuggestIndex.suggest("прос", 10));
+        assertEquals(List.of("дрель", "дрель ударная"), itemSuggestIndex.suggest("дрель", 10));
+    }
+
+    @Test
+    void termsOfCreatedItemsAreAdded() {
+        itemSuggestIndex.itemsCreated(List.of(item(3L, "Пила", "Ручная", true), item(4L, "Пила", "Ножовка", true),
+                item(5L, "Пилка", "Скрытая", false)));
+
+        assertEquals(List.of("пила"), itemSuggestIndex.suggest("пи", 10));
+        assertEquals(List.of("ножовка"), itemSuggestIndex.suggest("нож", 10));
+    }
+
+    @Test
+    void everySaveReplacesWhatWasIndexedForItem() {
+        itemSuggestIndex.itemSaved(item(2L, "Пила", "Ручная", true));
+        itemSuggestIndex.itemSaved(item(2L, "Лобзик", "Ручной", true));
+
+        assertEquals(List.of(), itemSuggestIndex.suggest("пил", 10));
+        assertEquals(List.of("лобзик"), itemSuggestIndex.suggest("лоб", 10));
+        assertEquals(List.of("дрель", "дрель ударная"), itemSuggestIndex.suggest("дрель", 10));
+        assertEquals(List.of("для"), itemSuggestIndex.suggest("дл", 10));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.ItemTextView;
+
+/**
+ * Stands in for the projection Spring Data builds from a query.
+ */
+@Value
+class TestItemTextView implements ItemTextView {
+    Long id;
+    String name;
+    String description;
+}
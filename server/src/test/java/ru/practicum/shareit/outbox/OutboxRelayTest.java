@@ -0,0 +1,100 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.outbox.event.BookingChangedEvent;
+import ru.practicum.shareit.outbox.event.ChangeEvent;
+import ru.practicum.shareit.outbox.event.ItemChangedEvent;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.model.OutboxMessage;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
+import ru.practicum.shareit.outbox.service.OutboxRelay;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setup() {
+        outboxRelay = new OutboxRelay(outboxRepository, eventPublisher, meterRegistry, 10);
+    }
+
+    private OutboxMessage message(long id, AggregateType aggregateType, long aggregateId) {
+        OutboxMessage message = new OutboxMessage(aggregateType, aggregateId, ChangeType.UPDATED);
+        message.setId(id);
+        return message;
+    }
+
+    @Test
+    void publishTypedEventsInOrderAndDeleteThem() {
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(
+                message(1L, AggregateType.BOOKING, 5L),
+                message(2L, AggregateType.ITEM, 7L)));
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+
+        outboxRelay.relay();
+
+        ArgumentCaptor<ChangeEvent> events = ArgumentCaptor.forClass(ChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertInstanceOf(BookingChangedEvent.class, events.getAllValues().get(0));
+        assertEquals(5L, events.getAllValues().get(0).getAggregateId());
+        assertInstanceOf(ItemChangedEvent.class, events.getAllValues().get(1));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2.0, meterRegistry.counter("shareit.outbox.published").count());
+        assertEquals(0.0, meterRegistry.get("shareit.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void keepLaterMessagesOfFailedAggregate() {
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(
+                message(1L, AggregateType.BOOKING, 5L),
+                message(2L, AggregateType.ITEM, 7L),
+                message(3L, AggregateType.BOOKING, 5L)));
+        OutboxMessage failed = message(1L, AggregateType.BOOKING, 5L);
+        failed.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(failed));
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof BookingChangedEvent) {
+                throw new IllegalStateException("listener failed");
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        outboxRelay.relay();
+
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(2L));
+        assertEquals(1.0, meterRegistry.counter("shareit.outbox.failed").count());
+        assertTrue(meterRegistry.get("shareit.outbox.lag").gauge().value() >= 60);
+    }
+}
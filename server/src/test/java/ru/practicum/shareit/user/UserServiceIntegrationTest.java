@@ -5,20 +5,31 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.model.OutboxMessage;
+import ru.practicum.shareit.outbox.repository.OutboxRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.outbox.poll-interval=PT1H")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 class UserServiceIntegrationTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OutboxRepository outboxRepository;
+
     private final UserDto userDto = new UserDto(
             null,
             "Frodo",
@@ -36,4 +47,17 @@ class UserServiceIntegrationTest {
     void getUserByWrongId() {
         assertThrows(UserNotFoundException.class, () -> userService.getById(999L));
     }
+
+    @Test
+    void changesAreRecordedInOutbox() {
+        UserDto createdUser = userService.add(userDto);
+        userService.deleteById(createdUser.getId());
+
+        List<OutboxMessage> messages = outboxRepository.findAll();
+
+        assertTrue(messages.stream().anyMatch(m -> m.getAggregateType() == AggregateType.USER &&
+                m.getAggregateId().equals(createdUser.getId()) && m.getChangeType() == ChangeType.CREATED));
+        assertTrue(messages.stream().anyMatch(m -> m.getAggregateType() == AggregateType.USER &&
+                m.getAggregateId().equals(createdUser.getId()) && m.getChangeType() == ChangeType.DELETED));
+    }
 }
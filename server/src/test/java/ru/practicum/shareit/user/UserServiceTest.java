@@ -5,6 +5,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.ChangeType;
+import ru.practicum.shareit.outbox.service.Outbox;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -28,6 +31,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private Outbox outbox;
+
     private final UserDto userDto = new UserDto(
             null,
             "Snoop Dogg",
@@ -52,6 +58,7 @@ class UserServiceTest {
 
         verify(userRepository).save(any(User.class));
         verifyNoMoreInteractions(userRepository);
+        verify(outbox).record(AggregateType.USER, 1L, ChangeType.CREATED);
     }
 
     @Test
@@ -110,5 +117,6 @@ class UserServiceTest {
 
         verify(userRepository).deleteById(anyLong());
         verifyNoMoreInteractions(userRepository);
+        verify(outbox).record(eq(AggregateType.USER), anyLong(), eq(ChangeType.DELETED));
     }
 }